@@ -8,6 +8,8 @@ import io.github.apace100.apoli.power.PowerManager;
 import io.github.apace100.calio.util.IdentifierAlias;
 import io.github.apace100.origins.badge.BadgeManager;
 import io.github.apace100.origins.command.OriginCommand;
+import io.github.apace100.origins.component.ChosenCallbackQueue;
+import io.github.apace100.origins.content.TemporaryCobwebManager;
 import io.github.apace100.origins.condition.factory.entity.OriginsEntityConditions;
 import io.github.apace100.origins.networking.ModPackets;
 import io.github.apace100.origins.networking.ModPacketsC2S;
@@ -15,17 +17,24 @@ import io.github.apace100.origins.origin.Origin;
 import io.github.apace100.origins.origin.OriginLayerManager;
 import io.github.apace100.origins.origin.OriginManager;
 import io.github.apace100.origins.power.factory.OriginsPowerTypes;
+import io.github.apace100.origins.power.type.ModifiedSpawnCache;
+import io.github.apace100.origins.power.type.ScareCreepersIndex;
 import io.github.apace100.origins.registry.*;
+import io.github.apace100.origins.store.OriginStores;
 import io.github.apace100.origins.util.ChoseOriginCriterion;
+import io.github.apace100.origins.util.ExposureCache;
 import io.github.apace100.origins.util.OriginLootCondition;
 import io.github.apace100.origins.util.OriginsConfigSerializer;
 import io.github.apace100.origins.util.OriginsJsonConfigSerializer;
+import io.github.apace100.origins.util.ScheduledTaskState;
+import io.github.apace100.origins.util.Scheduler;
 import me.shedaniel.autoconfig.AutoConfig;
 import me.shedaniel.autoconfig.ConfigData;
 import me.shedaniel.autoconfig.annotation.Config;
 import me.shedaniel.autoconfig.serializer.ConfigSerializer;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.itemgroup.v1.ItemGroupEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.resource.IdentifiableResourceReloadListener;
@@ -46,6 +55,8 @@ public class Origins implements ModInitializer {
 	public static final String MODID = "origins";
 	public static final Logger LOGGER = LogManager.getLogger(Origins.class);
 
+	public static final Scheduler SCHEDULER = new Scheduler();
+
 	public static String VERSION = "";
 	public static int[] SEMVER;
 
@@ -95,9 +106,15 @@ public class Origins implements ModInitializer {
 
 		ModComponents.register();
 		ModDataComponentTypes.register();
+		ModAttachments.register();
 
 		Origin.init();
 		BadgeManager.init();
+		ScareCreepersIndex.init();
+		TemporaryCobwebManager.init();
+		ModifiedSpawnCache.init();
+		ChosenCallbackQueue.init();
+		ExposureCache.init();
 
 		OriginManager originManager = new OriginManager();
 		OriginLayerManager originLayerManager = new OriginLayerManager();
@@ -116,6 +133,10 @@ public class Origins implements ModInitializer {
 		Registry.register(Registries.LOOT_CONDITION_TYPE, identifier("origin"), OriginLootCondition.TYPE);
 
 		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> ModComponents.ORIGIN.get(handler.player).selectingOrigin(false));
+
+		ServerLifecycleEvents.SERVER_STARTED.register(OriginStores::open);
+		ServerLifecycleEvents.SERVER_STARTED.register(ScheduledTaskState::restore);
+		ServerLifecycleEvents.SERVER_STOPPED.register(OriginStores::close);
 	}
 
 	public static void serializeConfig() {
@@ -135,6 +156,10 @@ public class Origins implements ModInitializer {
 
 		public boolean performVersionCheck = true;
 
+		public String originStore = "origins:nbt";
+
+		public boolean inlineSingleChoiceCallbacks = true;
+
 		public JsonObject origins = new JsonObject();
 
 		public boolean isOriginDisabled(Identifier originId) {
@@ -2,9 +2,13 @@ package io.github.apace100.origins;
 
 import io.github.apace100.apoli.ApoliClient;
 import io.github.apace100.apoli.integration.PowerClearCallback;
+import io.github.apace100.origins.badge.BadgeSpriteAtlas;
+import io.github.apace100.origins.badge.BadgeTooltipCache;
 import io.github.apace100.origins.networking.ModPacketsS2C;
+import io.github.apace100.origins.origin.OriginOptions;
 import io.github.apace100.origins.registry.ModBlocks;
 import io.github.apace100.origins.registry.ModEntities;
+import io.github.apace100.origins.screen.OriginIconAtlas;
 import io.github.apace100.origins.screen.ViewOriginScreen;
 import io.github.apace100.origins.util.PowerKeyManager;
 import net.fabricmc.api.ClientModInitializer;
@@ -14,11 +18,13 @@ import net.fabricmc.fabric.api.blockrenderlayer.v1.BlockRenderLayerMap;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.fabricmc.fabric.api.client.rendering.v1.EntityRendererRegistry;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.render.RenderLayer;
 import net.minecraft.client.render.entity.FlyingItemEntityRenderer;
 import net.minecraft.client.util.InputUtil;
+import net.minecraft.resource.ResourceType;
 import org.lwjgl.glfw.GLFW;
 
 public class OriginsClient implements ClientModInitializer {
@@ -29,6 +35,11 @@ public class OriginsClient implements ClientModInitializer {
 
     public static boolean isServerRunningOrigins = false;
 
+    /**
+     *  The origin options of the player, as last sent by the server when it asked the player to choose an origin
+     */
+    public static OriginOptions originOptions = OriginOptions.EMPTY;
+
     @Override
     @Environment(EnvType.CLIENT)
     public void onInitializeClient() {
@@ -63,6 +74,10 @@ public class OriginsClient implements ClientModInitializer {
         });
 
         PowerClearCallback.EVENT.register(PowerKeyManager::clearCache);
+        PowerClearCallback.EVENT.register(BadgeTooltipCache::clear);
+
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(BadgeSpriteAtlas.INSTANCE);
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(OriginIconAtlas.INSTANCE);
 
     }
 }
@@ -0,0 +1,12 @@
+package io.github.apace100.origins.access;
+
+import io.github.apace100.origins.util.ExposureCache;
+
+/**
+ *  Implemented on {@link net.minecraft.server.world.ServerWorld} to hold the {@link ExposureCache} of the world.
+ */
+public interface ExposureCacheHolder {
+
+    ExposureCache origins$getExposureCache();
+
+}
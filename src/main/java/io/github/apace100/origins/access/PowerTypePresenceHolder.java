@@ -0,0 +1,18 @@
+package io.github.apace100.origins.access;
+
+/**
+ *  Implemented on {@link net.minecraft.entity.LivingEntity} to track which Origins power types an entity may hold.
+ *
+ *  @see io.github.apace100.origins.power.type.PowerTypePresence
+ */
+public interface PowerTypePresenceHolder {
+
+    int origins$getPowerTypeFlags();
+
+    void origins$setPowerTypeFlags(int flags);
+
+    int origins$getStalePowerTypeFlags();
+
+    void origins$setStalePowerTypeFlags(int flags);
+
+}
@@ -0,0 +1,13 @@
+package io.github.apace100.origins.access;
+
+/**
+ *  Implemented on {@link net.minecraft.entity.Entity} so that the selection invulnerability of players can be checked
+ *  without looking up the origin component of every entity.
+ */
+public interface SelectionInvulnerableEntity {
+
+    boolean origins$hasSelectionInvulnerability();
+
+    void origins$setSelectionInvulnerability(boolean selectionInvulnerability);
+
+}
@@ -22,6 +22,14 @@ public interface Badge extends DataObject<Badge> {
     @Environment(EnvType.CLIENT)
     List<TooltipComponent> getTooltipComponents(Power power, int widthLimit, float time, TextRenderer textRenderer);
 
+    /**
+     *  @return the step of the animation of the tooltip at the specified time; the tooltip components of a badge may only
+     *  change over time when this step changes
+     */
+    default int getTooltipCycleStep(float time) {
+        return 0;
+    }
+
     SerializableData.Instance toData(SerializableData.Instance instance);
 
     BadgeFactory getBadgeFactory();
@@ -7,13 +7,14 @@ import io.github.apace100.apoli.integration.PrePowerReloadCallback;
 import io.github.apace100.apoli.power.MultiplePower;
 import io.github.apace100.apoli.power.Power;
 import io.github.apace100.apoli.power.PowerManager;
-import io.github.apace100.apoli.power.type.*;
 import io.github.apace100.calio.data.DataException;
 import io.github.apace100.calio.registry.DataObjectRegistry;
 import io.github.apace100.calio.util.DynamicIdentifier;
 import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.integration.AutoBadgeCallback;
+import io.github.apace100.origins.networking.ClientRegistrySync;
 import io.github.apace100.origins.networking.packet.s2c.SyncBadgesS2CPacket;
+import io.github.apace100.origins.util.PowerMetadata;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
@@ -34,7 +35,7 @@ public final class BadgeManager {
         .defaultFactory(BadgeFactories.KEYBIND)
         .buildAndRegister();
 
-    private static final Map<Identifier, List<Badge>> BADGES_BY_ID = new HashMap<>();
+    private static Map<Identifier, List<Badge>> badgesById = new HashMap<>();
 
     private static final Identifier TOGGLE_BADGE_SPRITE = Origins.identifier("textures/gui/badge/toggle.png");
     private static final Identifier ACTIVE_BADGE_SPRITE = Origins.identifier("textures/gui/badge/active.png");
@@ -50,9 +51,10 @@ public final class BadgeManager {
         register(BadgeFactories.CRAFTING_RECIPE);
         register(BadgeFactories.KEYBIND);
         //register callbacks
-        PrePowerReloadCallback.EVENT.register(BADGES_BY_ID::clear);
+        PrePowerReloadCallback.EVENT.register(() -> badgesById.clear());
+        PrePowerReloadCallback.EVENT.register(PowerMetadata::clear);
         PowerManager.registerAdditionalData("badges", BadgeManager::readCustomBadges);
-        PowerOverrideCallback.EVENT.register(BADGES_BY_ID::remove);
+        PowerOverrideCallback.EVENT.register(powerId -> badgesById.remove(powerId));
         PostPowerLoadCallback.EVENT.register(BadgeManager::readAutoBadges);
         AutoBadgeCallback.EVENT.register(BadgeManager::createAutoBadges);
         ServerLifecycleEvents.SYNC_DATA_PACK_CONTENTS.addPhaseOrdering(PowerManager.ID, REGISTRY.getRegistryId());
@@ -62,15 +64,26 @@ public final class BadgeManager {
     public static void send(ServerPlayerEntity player) {
 
         if (player.server.isDedicated()) {
-            ServerPlayNetworking.send(player, new SyncBadgesS2CPacket(BADGES_BY_ID));
+            ServerPlayNetworking.send(player, new SyncBadgesS2CPacket(badgesById));
         }
 
     }
 
     @Environment(EnvType.CLIENT)
     public static void receive(SyncBadgesS2CPacket packet, ClientPlayNetworking.Context context) {
-        BADGES_BY_ID.clear();
-        BADGES_BY_ID.putAll(packet.badgesById());
+        ClientRegistrySync.enqueue("badges", () -> new HashMap<>(packet.badgesById()), receivedBadges -> {
+
+            badgesById = receivedBadges;
+            BadgeTooltipCache.clear();
+
+            //  Keybind badges look up the key of their power when their tooltip is shown
+            PowerMetadata.precompute(badgesById.entrySet()
+                .stream()
+                .filter(e -> e.getValue().stream().anyMatch(KeybindBadge.class::isInstance))
+                .map(Map.Entry::getKey)
+                .toList());
+
+        });
     }
 
     public static void register(BadgeFactory factory) {
@@ -78,11 +91,11 @@ public final class BadgeManager {
     }
 
     public static List<Badge> getPowerBadges(Identifier powerId) {
-        return BADGES_BY_ID.getOrDefault(powerId, List.of());
+        return badgesById.getOrDefault(powerId, List.of());
     }
 
     public static boolean hasPowerBadges(Identifier powerId) {
-        return BADGES_BY_ID.containsKey(powerId);
+        return badgesById.containsKey(powerId);
     }
 
     public static boolean hasPowerBadges(Power power) {
@@ -101,7 +114,7 @@ public final class BadgeManager {
                 throw new JsonSyntaxException("Not a JSON array: " + data);
             }
 
-            List<Badge> badges = BADGES_BY_ID.computeIfAbsent(powerId, id -> new LinkedList<>());
+            List<Badge> badges = badgesById.computeIfAbsent(powerId, id -> new LinkedList<>());
             for (int i = 0; i < dataArray.size(); i++) {
 
                 JsonElement badgeJson = dataArray.get(i);
@@ -166,18 +179,18 @@ public final class BadgeManager {
         if (!hasPowerBadges(powerId) && !(power instanceof MultiplePower) && (isSubPower || !power.isHidden())) {
             AutoBadgeCallback.EVENT
                 .invoker()
-                .createAutoBadge(powerId, power, BADGES_BY_ID.computeIfAbsent(powerId, id -> new LinkedList<>()));
+                .createAutoBadge(powerId, power, badgesById.computeIfAbsent(powerId, id -> new LinkedList<>()));
         }
 
     }
 
     private static void createAutoBadges(Identifier powerId, Power power, List<Badge> badgeList) {
 
-        switch (power.create(null)) {
-            case Active active -> {
+        PowerMetadata metadata = PowerMetadata.get(power);
+        switch (metadata.kind()) {
+            case ACTIVE, TOGGLE -> {
 
-                boolean toggle = active instanceof TogglePowerType
-                    || active instanceof ToggleNightVisionPowerType;
+                boolean toggle = metadata.kind() == PowerMetadata.Kind.TOGGLE;
                 Identifier autoBadgeId = toggle
                     ? TOGGLE_BADGE_ID
                     : ACTIVE_BADGE_ID;
@@ -200,15 +213,15 @@ public final class BadgeManager {
                 }
 
             }
-            case RecipePowerType recipePowerType -> {
+            case RECIPE -> {
 
-                CraftingRecipe craftingRecipe = recipePowerType.getRecipe();
+                CraftingRecipe craftingRecipe = metadata.recipe();
                 String type = switch (craftingRecipe) {
                     case ShapedRecipe ignored ->
                         "shaped";
                     case ShapelessRecipe ignored ->
                         "shapeless";
-                    default ->
+                    case null, default ->
                         "unknown";
                 };
 
@@ -0,0 +1,194 @@
+package io.github.apace100.origins.badge;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import io.github.apace100.origins.Origins;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.resource.IdentifiableResourceReloadListener;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.BuiltBuffer;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.texture.MissingSprite;
+import net.minecraft.client.texture.Sprite;
+import net.minecraft.client.texture.SpriteAtlasHolder;
+import net.minecraft.client.texture.TextureManager;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ *  Stitches the badge sprites of resource packs (the textures in {@code textures/gui/badge} of any namespace, as defined
+ *  by {@code assets/origins/atlases/badges.json}) into a single atlas, so that any number of badges can be drawn with a
+ *  single draw call. Badges with a sprite outside the atlas, e.g. one that points to an item texture, are still drawn
+ *  with their own texture.
+ *
+ *  <p>Reloading the atlas also clears the {@link BadgeTooltipCache}, since the fonts or the language that the cached
+ *  tooltips were built with may have changed.</p>
+ */
+@Environment(EnvType.CLIENT)
+public class BadgeSpriteAtlas implements IdentifiableResourceReloadListener {
+
+    public static final Identifier ATLAS_TEXTURE_ID = Origins.identifier("textures/atlas/badges.png");
+    public static final Identifier ATLAS_ID = Origins.identifier("badges");
+
+    public static final BadgeSpriteAtlas INSTANCE = new BadgeSpriteAtlas();
+
+    private static final String TEXTURE_PREFIX = "textures/";
+    private static final String TEXTURE_SUFFIX = ".png";
+
+    private final Map<Identifier, Optional<Sprite>> spritesByTextureId = new HashMap<>();
+
+    @Nullable
+    private Holder holder;
+
+    private BadgeSpriteAtlas() {
+
+    }
+
+    @Override
+    public Identifier getFabricId() {
+        return ATLAS_ID;
+    }
+
+    @Override
+    public CompletableFuture<Void> reload(Synchronizer synchronizer, ResourceManager manager, Profiler prepareProfiler, Profiler applyProfiler, Executor prepareExecutor, Executor applyExecutor) {
+
+        //  The texture manager doesn't exist yet when the client initializer of the mod is called
+        if (holder == null) {
+            this.holder = new Holder(MinecraftClient.getInstance().getTextureManager());
+        }
+
+        return holder
+            .reload(synchronizer, manager, prepareProfiler, applyProfiler, prepareExecutor, applyExecutor)
+            .thenRunAsync(() -> {
+                spritesByTextureId.clear();
+                BadgeTooltipCache.clear();
+            }, applyExecutor);
+
+    }
+
+    /**
+     *  @param textureId    the ID of the texture of a badge sprite, e.g. {@code origins:textures/gui/badge/active.png}
+     *  @return the sprite of the texture in the atlas, or {@code null} if it's not part of the atlas
+     */
+    @Nullable
+    public Sprite getSprite(Identifier textureId) {
+        return spritesByTextureId.computeIfAbsent(textureId, this::findSprite).orElse(null);
+    }
+
+    /**
+     *  Draws the specified badges at their position, offset by {@code x} and {@code y}. Badges with a sprite in the atlas
+     *  are drawn in a single batch.
+     */
+    public void drawBadges(DrawContext context, List<? extends PositionedBadge> badges, int x, int y, int z) {
+
+        if (badges.isEmpty()) {
+            return;
+        }
+
+        List<PositionedBadge> unstitchedBadges = null;
+        Matrix4f matrix = context.getMatrices().peek().getPositionMatrix();
+
+        BufferBuilder bufferBuilder = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+        for (PositionedBadge badge : badges) {
+
+            Sprite sprite = this.getSprite(badge.badge().spriteId());
+            if (sprite == null) {
+
+                if (unstitchedBadges == null) {
+                    unstitchedBadges = new ArrayList<>();
+                }
+
+                unstitchedBadges.add(badge);
+                continue;
+
+            }
+
+            float x1 = x + badge.x();
+            float y1 = y + badge.y();
+            float x2 = x1 + PositionedBadge.SIZE;
+            float y2 = y1 + PositionedBadge.SIZE;
+
+            bufferBuilder.vertex(matrix, x1, y1, z).texture(sprite.getMinU(), sprite.getMinV());
+            bufferBuilder.vertex(matrix, x1, y2, z).texture(sprite.getMinU(), sprite.getMaxV());
+            bufferBuilder.vertex(matrix, x2, y2, z).texture(sprite.getMaxU(), sprite.getMaxV());
+            bufferBuilder.vertex(matrix, x2, y1, z).texture(sprite.getMaxU(), sprite.getMinV());
+
+        }
+
+        BuiltBuffer builtBuffer = bufferBuilder.endNullable();
+        if (builtBuffer != null) {
+            RenderSystem.setShaderTexture(0, ATLAS_TEXTURE_ID);
+            RenderSystem.setShader(GameRenderer::getPositionTexProgram);
+            BufferRenderer.drawWithGlobalProgram(builtBuffer);
+        }
+
+        if (unstitchedBadges != null) {
+            for (PositionedBadge badge : unstitchedBadges) {
+                context.drawTexture(badge.badge().spriteId(), x + badge.x(), y + badge.y(), z, 0, 0, PositionedBadge.SIZE, PositionedBadge.SIZE, PositionedBadge.SIZE, PositionedBadge.SIZE);
+            }
+        }
+
+    }
+
+    private Optional<Sprite> findSprite(Identifier textureId) {
+
+        String path = textureId.getPath();
+        if (holder == null || !path.startsWith(TEXTURE_PREFIX) || !path.endsWith(TEXTURE_SUFFIX)) {
+            return Optional.empty();
+        }
+
+        Identifier spriteId = textureId.withPath(path.substring(TEXTURE_PREFIX.length(), path.length() - TEXTURE_SUFFIX.length()));
+        Sprite sprite = holder.getSprite(spriteId);
+
+        return sprite.getContents().getId().equals(MissingSprite.getMissingSpriteId())
+            ? Optional.empty()
+            : Optional.of(sprite);
+
+    }
+
+    /**
+     *  A badge that is drawn at a position.
+     */
+    public interface PositionedBadge {
+
+        int SIZE = 9;
+
+        Badge badge();
+
+        int x();
+
+        int y();
+
+    }
+
+    private static class Holder extends SpriteAtlasHolder {
+
+        private Holder(TextureManager textureManager) {
+            super(textureManager, ATLAS_TEXTURE_ID, ATLAS_ID);
+        }
+
+        @Override
+        public Sprite getSprite(Identifier objectId) {
+            return super.getSprite(objectId);
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.github.apace100.origins.badge;
+
+import io.github.apace100.apoli.power.Power;
+import io.github.apace100.origins.util.KeyBindingUtil;
+import io.github.apace100.origins.util.PowerTypeVersion;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.tooltip.TooltipComponent;
+import net.minecraft.util.Identifier;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  Caches the tooltip components of badges, so that the tooltip of a hovered badge isn't rebuilt on every frame. Only the
+ *  latest tooltip of every badge, power and width is kept; it's rebuilt once the key bindings change, once the
+ *  {@linkplain Badge#getTooltipCycleStep(float) animation step} of the badge changes, once the {@linkplain
+ *  PowerTypeVersion powers of an entity} are synced to the client (since the tooltips of some badges depend on the
+ *  powers of the player), or once advanced tooltips are toggled.
+ *
+ *  <p>The cache is cleared when powers or badges are reloaded, and when client resources are reloaded.</p>
+ */
+@Environment(EnvType.CLIENT)
+public class BadgeTooltipCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    //  The width limit of a tooltip depends on the position of the mouse, so only the most recently used entries are kept
+    private static final Map<Key, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75F, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return this.size() > MAX_ENTRIES;
+        }
+
+    };
+
+    public static List<TooltipComponent> get(Badge badge, Power power, int widthLimit, float time, TextRenderer textRenderer) {
+
+        Key key = new Key(badge, power.getId(), widthLimit);
+        Entry entry = ENTRIES.get(key);
+
+        int keyBindingVersion = KeyBindingUtil.getVersion();
+        int cycleStep = badge.getTooltipCycleStep(time);
+        boolean advancedTooltips = MinecraftClient.getInstance().options.advancedItemTooltips;
+        int powerTypeVersion = PowerTypeVersion.getVersion();
+
+        if (entry == null || entry.keyBindingVersion() != keyBindingVersion || entry.cycleStep() != cycleStep || entry.advancedTooltips() != advancedTooltips || entry.powerTypeVersion() != powerTypeVersion) {
+            entry = new Entry(List.copyOf(badge.getTooltipComponents(power, widthLimit, time, textRenderer)), keyBindingVersion, cycleStep, advancedTooltips, powerTypeVersion);
+            ENTRIES.put(key, entry);
+        }
+
+        return entry.components();
+
+    }
+
+    public static void clear() {
+        ENTRIES.clear();
+    }
+
+    private record Key(Badge badge, Identifier powerId, int widthLimit) {
+
+    }
+
+    private record Entry(List<TooltipComponent> components, int keyBindingVersion, int cycleStep, boolean advancedTooltips, int powerTypeVersion) {
+
+    }
+
+}
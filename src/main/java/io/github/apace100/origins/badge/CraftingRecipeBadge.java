@@ -49,7 +49,7 @@ public record CraftingRecipeBadge(Identifier spriteId,
         DefaultedList<ItemStack> inputs = DefaultedList.ofSize(9, ItemStack.EMPTY);
         List<Ingredient> ingredients = this.recipe.value().getIngredients();
 
-        int seed = MathHelper.floor(time / 30);
+        int seed = this.getTooltipCycleStep(time);
         for (int index = 0; index < ingredients.size(); index++) {
 
             ItemStack[] stacks = ingredients.get(index).getMatchingStacks();
@@ -63,6 +63,11 @@ public record CraftingRecipeBadge(Identifier spriteId,
 
     }
 
+    @Override
+    public int getTooltipCycleStep(float time) {
+        return MathHelper.floor(time / 30);
+    }
+
     @Environment(EnvType.CLIENT)
     @Override
     public List<TooltipComponent> getTooltipComponents(Power power, int widthLimit, float time, TextRenderer textRenderer) {
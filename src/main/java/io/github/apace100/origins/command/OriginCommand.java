@@ -7,6 +7,7 @@ import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.command.argument.LayerArgumentType;
 import io.github.apace100.origins.command.argument.OriginArgumentType;
 import io.github.apace100.origins.component.OriginComponent;
+import io.github.apace100.origins.component.OriginTransaction;
 import io.github.apace100.origins.networking.packet.s2c.OpenChooseOriginScreenS2CPacket;
 import io.github.apace100.origins.origin.*;
 import io.github.apace100.origins.registry.ModComponents;
@@ -15,6 +16,7 @@ import net.minecraft.command.argument.EntityArgumentType;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -97,7 +99,7 @@ public class OriginCommand {
 				originComponent.setOrigin(originLayer, origin);
 				ModComponents.ORIGIN.sync(target);
 				
-				OriginComponent.partialOnChosen(target, hadOriginBefore, origin);
+				OriginComponent.partialOnChosen(target, hadOriginBefore, origin, targets.size() == 1);
 				processedTargets++;
 				
 			}
@@ -222,6 +224,7 @@ public class OriginCommand {
 
 	/**
 	 * 	Randomize the origin of the specified entities in the specified origin layer.
+	 * 	Players that none of the origins of the layer can be randomly assigned to keep their current origin.
 	 * 	@param commandContext the command context
 	 * 	@return the number of players that had their origin randomized in the specified origin layer
 	 * 	@throws CommandSyntaxException if the entity is not found or if the entity is not an instance of {@link ServerPlayerEntity}
@@ -235,17 +238,30 @@ public class OriginCommand {
 		if (originLayer.isRandomAllowed()) {
 
 			Origin origin = null;
+			int randomized = 0;
+
 			for (ServerPlayerEntity target : targets) {
-				origin = getRandomOrigin(target, originLayer);
+
+				origin = getRandomOrigin(target, originLayer, targets.size() == 1);
+
+				if (origin != null) {
+					randomized++;
+				}
+
+				else {
+					serverCommandSource.sendError(Text.translatable("commands.origin.random.unavailable", target.getName().getString(), originLayer.getName()));
+				}
+
 			}
 
-			if (targets.size() > 1) serverCommandSource.sendFeedback(() -> Text.translatable("commands.origin.random.success.multiple", targets.size(), originLayer.getName()), true);
-			else if (targets.size() == 1) {
+			int finalRandomized = randomized;
+			if (targets.size() > 1 && randomized > 0) serverCommandSource.sendFeedback(() -> Text.translatable("commands.origin.random.success.multiple", finalRandomized, originLayer.getName()), true);
+			else if (targets.size() == 1 && origin != null) {
 				Origin finalOrigin = origin;
 				serverCommandSource.sendFeedback(() -> Text.translatable("commands.origin.random.success.single", targets.iterator().next().getName().getString(), finalOrigin.getName(), originLayer.getName()), false);
 			}
 
-			return targets.size();
+			return randomized;
 
 		}
 
@@ -258,8 +274,9 @@ public class OriginCommand {
 
 	/**
 	 * 	Randomize the origins of the specified entities in all the origin layers that allows to be randomized.
+	 * 	Layers that none of the origins can be randomly assigned from to a player are left untouched for that player.
 	 * 	@param commandContext the command context
-	 * 	@return the number of players that had their origins randomized in all the origin layers that allows to be randomized
+	 * 	@return the number of players that had their origin randomized in at least one origin layer
 	 * 	@throws CommandSyntaxException if the entity is not found or if the entity is not an instance of {@link ServerPlayerEntity}
 	 */
 	private static int randomizeOrigins(CommandContext<ServerCommandSource> commandContext, TargetType targetType) throws CommandSyntaxException {
@@ -276,14 +293,28 @@ public class OriginCommand {
 			case SPECIFY -> targets.addAll(EntityArgumentType.getPlayers(commandContext, "targets"));
 		}
 
+		int randomized = 0;
 		for (ServerPlayerEntity target : targets) {
+
+			boolean randomizedAny = false;
 			for (OriginLayer originLayer : originLayers) {
-				getRandomOrigin(target, originLayer);
+				randomizedAny |= getRandomOrigin(target, originLayer, targets.size() == 1) != null;
+			}
+
+			if (randomizedAny) {
+				randomized++;
 			}
+
+			else {
+				serverCommandSource.sendError(Text.translatable("commands.origin.random.all.unavailable", target.getName().getString()));
+			}
+
 		}
 
-		serverCommandSource.sendFeedback(() -> Text.translatable("commands.origin.random.all", targets.size(), originLayers.size()), false);
-		return targets.size();
+		int finalRandomized = randomized;
+		if (randomized > 0) serverCommandSource.sendFeedback(() -> Text.translatable("commands.origin.random.all", finalRandomized, originLayers.size()), false);
+
+		return randomized;
 
 	}
 
@@ -302,10 +333,13 @@ public class OriginCommand {
 			layersToProcess.addAll(OriginLayerManager.values());
 		}
 
+		OriginTransaction transaction = component.transaction();
 		layersToProcess
 			.stream()
 			.filter(OriginLayer::isEnabled)
-			.forEach(ol -> component.setOrigin(ol, Origin.EMPTY));
+			.forEach(ol -> transaction.set(ol, Origin.EMPTY));
+
+		transaction.commit();
 
 		boolean originAutomaticallyAssigned = component.checkAutoChoosingLayers(target, false);
 		int originOptions = layer != null ? layer.getOriginOptionCount(target) : OriginLayerManager.getOriginOptionCount(target);
@@ -314,16 +348,26 @@ public class OriginCommand {
 		component.sync();
 
 		if (component.isSelectingOrigin()) {
-			ServerPlayNetworking.send(target, new OpenChooseOriginScreenS2CPacket(false));
+			ServerPlayNetworking.send(target, new OpenChooseOriginScreenS2CPacket(false, OriginOptions.of(target)));
 		}
 
 	}
 
-	private static Origin getRandomOrigin(ServerPlayerEntity target, OriginLayer originLayer) {
+	/**
+	 * 	Assigns a random origin of the layer to the player, leaving the origin of the player untouched if none of the origins
+	 * 	of the layer can be randomly assigned to them.
+	 * 	@return the assigned origin, or {@code null} if no origin could be randomly assigned
+	 */
+	@Nullable
+	private static Origin getRandomOrigin(ServerPlayerEntity target, OriginLayer originLayer, boolean singleTarget) {
+
+		Identifier originId = originLayer.getRandomOrigin(target);
+		if (originId == null) {
+			return null;
+		}
 
-		List<Origin> origins = originLayer.getRandomOrigins(target).stream().map(OriginManager::get).toList();
 		OriginComponent originComponent = ModComponents.ORIGIN.get(target);
-		Origin origin = origins.get(new Random().nextInt(origins.size()));
+		Origin origin = OriginManager.get(originId);
 
 		boolean hadOriginBefore = originComponent.hadOriginBefore();
 		boolean hadAllOrigins = originComponent.hasAllOrigins();
@@ -332,7 +376,7 @@ public class OriginCommand {
 		originComponent.checkAutoChoosingLayers(target, false);
 		originComponent.sync();
 
-		if (originComponent.hasAllOrigins() && !hadAllOrigins) OriginComponent.onChosen(target, hadOriginBefore);
+		if (originComponent.hasAllOrigins() && !hadAllOrigins) OriginComponent.onChosen(target, hadOriginBefore, singleTarget);
 
 		Origins.LOGGER.info(
 			"Player {} was randomly assigned the origin {} for layer {}",
@@ -0,0 +1,125 @@
+package io.github.apace100.origins.component;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import io.github.apace100.apoli.component.PowerHolderComponent;
+import io.github.apace100.apoli.power.PowerManager;
+import io.github.apace100.apoli.power.type.ModifyPlayerSpawnPowerType;
+import io.github.apace100.apoli.power.type.PowerType;
+import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.power.type.ModifiedSpawnCache;
+import io.github.apace100.origins.power.type.OriginsCallbackPowerType;
+import io.github.apace100.origins.util.PersistentTaskType;
+import io.github.apace100.origins.util.Scheduler;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Uuids;
+
+import java.util.UUID;
+
+/**
+ *  Defers the callbacks that run when a player has chosen their origins (spawn teleports and "chosen" actions) to the
+ *  {@link Scheduler.Priority#NORMAL normal} lane of {@link Origins#SCHEDULER}. The lane runs tasks in the order they
+ *  were queued within the per-tick budget of the scheduler, so the callbacks of a player still run in order, but a bulk
+ *  change of many players' origins no longer runs all of their callbacks in the same tick.
+ *
+ *  <p>Deferred callbacks are {@linkplain Scheduler#queuePersistent queued persistently}, so callbacks that are still
+ *  pending when the server stops run once it starts again. Callbacks of players that are offline wait for them to join
+ *  for up to {@link #MAX_RETRIES} retries.</p>
+ */
+public final class ChosenCallbackQueue {
+
+    private static final int RETRY_INTERVAL_TICKS = 20;
+    private static final int MAX_RETRIES = 1200;
+
+    public static final PersistentTaskType<PendingCallback> TASK_TYPE = PersistentTaskType.register(
+        Origins.identifier("chosen_callback"),
+        PendingCallback.CODEC,
+        ChosenCallbackQueue::run
+    );
+
+    private ChosenCallbackQueue() {
+
+    }
+
+    /**
+     *  Makes sure that the persistent task type is registered before the tasks saved with the world are restored.
+     */
+    public static void init() {
+
+    }
+
+    /**
+     *  Runs the callback of the power type (a {@link ModifyPlayerSpawnPowerType} or an {@link OriginsCallbackPowerType}),
+     *  either right away if {@code inline} is set, or once the scheduler gets to it. Deferred callbacks are skipped if the
+     *  player no longer has the power by the time they run.
+     */
+    public static void submit(PlayerEntity player, PowerType powerType, boolean hadOriginBefore, boolean inline) {
+
+        if (inline || !(player instanceof ServerPlayerEntity)) {
+            runCallback(player, powerType, hadOriginBefore);
+            return;
+        }
+
+        PendingCallback callback = new PendingCallback(player.getUuid(), powerType.getPower().getId(), hadOriginBefore, 0);
+        Origins.SCHEDULER.queuePersistent(TASK_TYPE, callback.key(), callback, 0);
+
+    }
+
+    private static void run(MinecraftServer server, PendingCallback callback) {
+
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(callback.playerUuid());
+        if (player == null || player.isDisconnected()) {
+
+            if (callback.retries() < MAX_RETRIES) {
+                PendingCallback retry = new PendingCallback(callback.playerUuid(), callback.powerId(), callback.hadOriginBefore(), callback.retries() + 1);
+                Origins.SCHEDULER.queuePersistent(TASK_TYPE, retry.key(), retry, RETRY_INTERVAL_TICKS);
+            }
+
+            return;
+
+        }
+
+        PowerHolderComponent powerHolder = PowerHolderComponent.KEY.get(player);
+        PowerManager.getOptional(callback.powerId())
+            .map(powerHolder::getPowerType)
+            .ifPresent(powerType -> runCallback(player, powerType, callback.hadOriginBefore()));
+
+    }
+
+    private static void runCallback(PlayerEntity player, PowerType powerType, boolean hadOriginBefore) {
+
+        if (powerType instanceof ModifyPlayerSpawnPowerType modifyPlayerSpawnPowerType) {
+            ModifiedSpawnCache.teleport(modifyPlayerSpawnPowerType, player);
+        }
+
+        else if (powerType instanceof OriginsCallbackPowerType originsCallbackPowerType) {
+            originsCallbackPowerType.onChosen(hadOriginBefore);
+        }
+
+    }
+
+    /**
+     *  @param retries  how many times the callback was queued again, since the player was offline
+     */
+    public record PendingCallback(UUID playerUuid, Identifier powerId, boolean hadOriginBefore, int retries) {
+
+        public static final Codec<PendingCallback> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Uuids.CODEC.fieldOf("player").forGetter(PendingCallback::playerUuid),
+            Identifier.CODEC.fieldOf("power").forGetter(PendingCallback::powerId),
+            Codec.BOOL.fieldOf("had_origin_before").forGetter(PendingCallback::hadOriginBefore),
+            Codec.INT.optionalFieldOf("retries", 0).forGetter(PendingCallback::retries)
+        ).apply(instance, PendingCallback::new));
+
+        /**
+         *  A player can only have one pending callback per power, so choosing again replaces the pending one.
+         */
+        private String key() {
+            return playerUuid + "/" + powerId;
+        }
+
+    }
+
+}
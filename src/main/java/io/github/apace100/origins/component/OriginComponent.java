@@ -4,17 +4,17 @@ import io.github.apace100.apoli.component.PowerHolderComponent;
 import io.github.apace100.apoli.power.Power;
 import io.github.apace100.apoli.power.type.ModifyPlayerSpawnPowerType;
 import io.github.apace100.apoli.power.type.PowerType;
+import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.origin.*;
 import io.github.apace100.origins.power.type.OriginsCallbackPowerType;
 import io.github.apace100.origins.registry.ModComponents;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.Identifier;
 import org.ladysnake.cca.api.v3.component.sync.AutoSyncedComponent;
-import org.ladysnake.cca.api.v3.component.tick.ServerTickingComponent;
 
 import java.util.*;
 
-public interface OriginComponent extends AutoSyncedComponent, ServerTickingComponent {
+public interface OriginComponent extends AutoSyncedComponent {
 
 	Map<OriginLayer, Origin> getOrigins();
 	Origin getOrigin(OriginLayer layer);
@@ -25,29 +25,76 @@ public interface OriginComponent extends AutoSyncedComponent, ServerTickingCompo
 	boolean hasAllOrigins();
 	boolean hadOriginBefore();
 
+	/**
+	 *	@return whether the origin with the specified ID is present in any layer (including {@link Origin#EMPTY})
+	 */
+	boolean hasOrigin(Identifier originId);
+
+	/**
+	 *	@return whether the origin with the specified ID is present in the layer with the specified ID
+	 */
+	boolean hasOrigin(Identifier originId, Identifier layerId);
+
 	void selectingOrigin(boolean selectingOrigin);
 	void removeLayer(OriginLayer layer);
 	void setOrigin(OriginLayer layer, Origin origin);
 	void sync();
 
+	/**
+	 *	@return a new transaction for staging origin changes across multiple layers, which are applied with a single
+	 *	net power diff once {@link OriginTransaction#commit() committed}
+	 */
+	OriginTransaction transaction();
+
 	static void sync(PlayerEntity player) {
 		ModComponents.ORIGIN.sync(player);
 	}
 
+	/**
+	 *	Runs the callbacks of a player having chosen all of their origins right away.
+	 */
 	static void onChosen(PlayerEntity player, boolean hadOriginBefore) {
+		runChosenCallbacks(player, hadOriginBefore, true);
+	}
+
+	/**
+	 *	Runs the callbacks of a player having chosen all of their origins, deferring them to the {@link ChosenCallbackQueue}
+	 *	unless this is the choice of a single player and the {@code inlineSingleChoiceCallbacks} config option is enabled.
+	 *
+	 *	@param singleChoice whether this is the choice of a single player, rather than part of a bulk change
+	 */
+	static void onChosen(PlayerEntity player, boolean hadOriginBefore, boolean singleChoice) {
+		runChosenCallbacks(player, hadOriginBefore, singleChoice && Origins.config.inlineSingleChoiceCallbacks);
+	}
+
+	private static void runChosenCallbacks(PlayerEntity player, boolean hadOriginBefore, boolean inline) {
 
 		if (!hadOriginBefore) {
 			PowerHolderComponent.getPowerTypes(player, ModifyPlayerSpawnPowerType.class)
 				.stream()
 				.max(Comparator.comparing(ModifyPlayerSpawnPowerType::getPriority))
-				.ifPresent(ModifyPlayerSpawnPowerType::teleportToModifiedSpawn);
+				.ifPresent(powerType -> ChosenCallbackQueue.submit(player, powerType, hadOriginBefore, inline));
 		}
 
-		PowerHolderComponent.withPowerTypes(player, OriginsCallbackPowerType.class, p -> true, p -> p.onChosen(hadOriginBefore));
+		PowerHolderComponent.withPowerTypes(player, OriginsCallbackPowerType.class, p -> true, p -> ChosenCallbackQueue.submit(player, p, hadOriginBefore, inline));
 
 	}
 
+	/**
+	 *	Runs the callbacks of the powers of the origin right away.
+	 */
 	static void partialOnChosen(PlayerEntity player, boolean hadOriginBefore, Origin origin) {
+		runPartialChosenCallbacks(player, hadOriginBefore, origin, true);
+	}
+
+	/**
+	 *	Runs the callbacks of the powers of the origin, deferring them like {@link #onChosen(PlayerEntity, boolean, boolean)}.
+	 */
+	static void partialOnChosen(PlayerEntity player, boolean hadOriginBefore, Origin origin, boolean singleChoice) {
+		runPartialChosenCallbacks(player, hadOriginBefore, origin, singleChoice && Origins.config.inlineSingleChoiceCallbacks);
+	}
+
+	private static void runPartialChosenCallbacks(PlayerEntity player, boolean hadOriginBefore, Origin origin, boolean inline) {
 
 		PowerHolderComponent powerHolder = PowerHolderComponent.KEY.get(player);
 
@@ -55,12 +102,8 @@ public interface OriginComponent extends AutoSyncedComponent, ServerTickingCompo
 
 			PowerType powerType  = powerHolder.getPowerType(power);
 
-			if (powerType instanceof ModifyPlayerSpawnPowerType mps && !hadOriginBefore) {
-				mps.teleportToModifiedSpawn();
-			}
-
-			else if (powerType instanceof OriginsCallbackPowerType ocp) {
-				ocp.onChosen(hadOriginBefore);
+			if ((powerType instanceof ModifyPlayerSpawnPowerType && !hadOriginBefore) || powerType instanceof OriginsCallbackPowerType) {
+				ChosenCallbackQueue.submit(player, powerType, hadOriginBefore, inline);
 			}
 
 		}
@@ -102,12 +145,9 @@ public interface OriginComponent extends AutoSyncedComponent, ServerTickingCompo
 					setOrigin(layer, origins.getFirst());
 					choseOneAutomatically = true;
 
-				} else if (layer.isRandomAllowed() && !layer.getRandomOrigins(player).isEmpty()) {
-
-					List<Identifier> randomOriginIds = layer.getRandomOrigins(player);
-					int randomOriginIndex = player.getRandom().nextInt(randomOriginIds.size());
+				} else if (layer.isRandomAllowed() && layer.getRandomOrigin(player) instanceof Identifier randomOriginId) {
 
-					setOrigin(layer, OriginManager.get(randomOriginIds.get(randomOriginIndex)));
+					setOrigin(layer, OriginManager.get(randomOriginId));
 					choseOneAutomatically = true;
 
 				}
@@ -0,0 +1,74 @@
+package io.github.apace100.origins.component;
+
+import io.github.apace100.origins.origin.Origin;
+import io.github.apace100.origins.origin.OriginLayer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ *  Stages origin changes across multiple layers so that they can be applied at once with {@link #commit()}. Committing
+ *  computes the net set of added and removed powers of all staged changes, so powers that are kept don't lose their
+ *  state, and only a single grant and a single revoke sync are sent.
+ */
+public class OriginTransaction {
+
+    private final Map<OriginLayer, Origin> changes = new LinkedHashMap<>();
+    private final Consumer<OriginTransaction> applier;
+
+    private boolean committed;
+
+    public OriginTransaction(Consumer<OriginTransaction> applier) {
+        this.applier = applier;
+    }
+
+    /**
+     *  Stages setting the origin of the specified layer. Replaces any change previously staged for the layer.
+     */
+    public OriginTransaction set(OriginLayer layer, Origin origin) {
+        checkNotCommitted();
+        changes.put(layer, origin);
+        return this;
+    }
+
+    /**
+     *  Stages removing the specified layer. Replaces any change previously staged for the layer.
+     */
+    public OriginTransaction remove(OriginLayer layer) {
+        checkNotCommitted();
+        changes.put(layer, null);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     *  @return the staged changes in the order they were first staged, where a {@code null} origin means that the layer
+     *  is to be removed
+     */
+    public Map<OriginLayer, Origin> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    public void commit() {
+
+        checkNotCommitted();
+        committed = true;
+
+        if (!changes.isEmpty()) {
+            applier.accept(this);
+        }
+
+    }
+
+    private void checkNotCommitted() {
+        if (committed) {
+            throw new IllegalStateException("Origin transaction was already committed!");
+        }
+    }
+
+}
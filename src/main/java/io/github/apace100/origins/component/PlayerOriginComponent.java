@@ -1,39 +1,62 @@
 package io.github.apace100.origins.component;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
-import com.mojang.serialization.JsonOps;
 import io.github.apace100.apoli.component.PowerHolderComponent;
 import io.github.apace100.apoli.power.Power;
 import io.github.apace100.apoli.power.PowerManager;
 import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.access.SelectionInvulnerableEntity;
+import io.github.apace100.origins.networking.ClientRegistrySync;
 import io.github.apace100.origins.origin.*;
 import io.github.apace100.origins.registry.ModComponents;
+import io.github.apace100.origins.store.OriginStore;
+import io.github.apace100.origins.store.OriginStores;
 import io.github.apace100.origins.util.ChoseOriginCriterion;
+import io.github.apace100.origins.util.Scheduler;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
-import net.minecraft.registry.RegistryOps;
 import net.minecraft.registry.RegistryWrapper;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 public class PlayerOriginComponent implements OriginComponent {
 
+    private static final int SELECTION_INVULNERABILITY_TICKS = 60;
+
+    /**
+     *  The bit used in {@link #layerMasksByOrigin} for layers whose index doesn't fit in the mask.
+     */
+    private static final long OVERFLOW_LAYER_BIT = 1L << 63;
+
     private final Map<OriginLayer, Origin> origins = new ConcurrentHashMap<>();
     private final PlayerEntity player;
 
+    /**
+     *  An index of the origins of the player, mapping origin IDs to a bitmask of the {@linkplain
+     *  OriginLayerManager#getIndex(Identifier) indices} of the layers they're in.
+     */
+    private final Object2LongOpenHashMap<Identifier> layerMasksByOrigin = new Object2LongOpenHashMap<>();
+    private int indexedLayersVersion = -1;
+
     private boolean selectingOrigin = false;
     private boolean hadOriginBefore = false;
 
-    private int invulnerabilityTicks = 0;
+    /**
+     *  The scheduled expiry of the selection invulnerability, which is cancelled if the player starts choosing again
+     *  before it runs.
+     */
+    @Nullable
+    private Scheduler.Handle invulnerabilityExpiry;
 
     public PlayerOriginComponent(PlayerEntity player) {
         this.player = player;
@@ -41,7 +64,7 @@ public class PlayerOriginComponent implements OriginComponent {
 
     @Override
     public boolean hasSelectionInvulnerability() {
-        return invulnerabilityTicks > 0;
+        return ((SelectionInvulnerableEntity) player).origins$hasSelectionInvulnerability();
     }
 
     @Override
@@ -54,8 +77,28 @@ public class PlayerOriginComponent implements OriginComponent {
 
         this.selectingOrigin = selectingOrigin;
 
-        if (selectingOrigin && !player.getWorld().isClient) {
-            invulnerabilityTicks = 60;
+        if (player.getWorld().isClient) {
+            return;
+        }
+
+        SelectionInvulnerableEntity invulnerableEntity = (SelectionInvulnerableEntity) player;
+        if (invulnerabilityExpiry != null) {
+            invulnerabilityExpiry.cancel();
+            invulnerabilityExpiry = null;
+        }
+
+        if (selectingOrigin) {
+            invulnerableEntity.origins$setSelectionInvulnerability(true);
+        }
+
+        else if (invulnerableEntity.origins$hasSelectionInvulnerability()) {
+            //  Keep the player invulnerable for a little while after they're done choosing
+            invulnerabilityExpiry = Origins.SCHEDULER.queue(
+                "origins:selection_invulnerability",
+                Scheduler.Priority.HIGH,
+                server -> invulnerableEntity.origins$setSelectionInvulnerability(false),
+                SELECTION_INVULNERABILITY_TICKS
+            );
         }
 
     }
@@ -80,6 +123,67 @@ public class PlayerOriginComponent implements OriginComponent {
             && origins.get(layer) != Origin.EMPTY;
     }
 
+    @Override
+    public boolean hasOrigin(Identifier originId) {
+        return getLayerMask(originId) != 0;
+    }
+
+    @Override
+    public boolean hasOrigin(Identifier originId, Identifier layerId) {
+
+        long layerMask = getLayerMask(originId);
+        if (layerMask == 0) {
+            return false;
+        }
+
+        int layerIndex = OriginLayerManager.getIndex(layerId);
+        if (layerIndex >= 0 && layerIndex < 63) {
+            return (layerMask & (1L << layerIndex)) != 0;
+        }
+
+        else if ((layerMask & OVERFLOW_LAYER_BIT) == 0) {
+            return false;
+        }
+
+        for (Map.Entry<OriginLayer, Origin> entry : origins.entrySet()) {
+            if (entry.getKey().getId().equals(layerId) && entry.getValue().getId().equals(originId)) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    private long getLayerMask(Identifier originId) {
+
+        if (indexedLayersVersion != OriginLayerManager.getVersion()) {
+
+            layerMasksByOrigin.clear();
+            origins.forEach((layer, origin) -> {
+
+                int layerIndex = OriginLayerManager.getIndex(layer.getId());
+                long layerBit = layerIndex >= 0 && layerIndex < 63 ? 1L << layerIndex : OVERFLOW_LAYER_BIT;
+
+                layerMasksByOrigin.put(origin.getId(), layerMasksByOrigin.getLong(origin.getId()) | layerBit);
+
+            });
+
+            indexedLayersVersion = OriginLayerManager.getVersion();
+
+        }
+
+        return layerMasksByOrigin.getLong(originId);
+
+    }
+
+    /**
+     *  Marks the origin index as outdated, so that it's rebuilt on the next query.
+     */
+    private void invalidateIndex() {
+        indexedLayersVersion = -1;
+    }
+
     @Override
     public Origin getOrigin(OriginLayer layer) {
         return origins.get(layer);
@@ -92,55 +196,211 @@ public class PlayerOriginComponent implements OriginComponent {
 
     @Override
     public void removeLayer(OriginLayer layer) {
-
-        Origin oldOrigin = getOrigin(layer);
-        if (oldOrigin != null) {
-            PowerHolderComponent.KEY.get(player).removeAllPowersFromSource(oldOrigin.getId());
-        }
-
-        origins.remove(layer);
-
+        transaction().remove(layer).commit();
     }
 
     @Override
     public void setOrigin(OriginLayer layer, Origin origin) {
+        transaction().set(layer, origin).commit();
+    }
 
-        Origin oldOrigin = getOrigin(layer);
-        if (origin == oldOrigin) {
+    @Override
+    public OriginTransaction transaction() {
+        return new OriginTransaction(this::applyTransaction);
+    }
+
+    private void applyTransaction(OriginTransaction transaction) {
+
+        Map<OriginLayer, Origin> changes = new LinkedHashMap<>();
+        transaction.getChanges().forEach((layer, origin) -> {
+            if (origin != getOrigin(layer)) {
+                changes.put(layer, origin);
+            }
+        });
+
+        if (changes.isEmpty()) {
             return;
         }
 
+        //  Determine the origins the player will have after the transaction, and the power sources that are affected by it
+        Map<OriginLayer, Origin> newOrigins = new HashMap<>(origins);
+        Set<Identifier> affectedSourceIds = new LinkedHashSet<>();
+
+        changes.forEach((layer, origin) -> {
+
+            Origin oldOrigin = origin != null
+                ? newOrigins.put(layer, origin)
+                : newOrigins.remove(layer);
+
+            if (oldOrigin != null) {
+                affectedSourceIds.add(oldOrigin.getId());
+            }
+
+            if (origin != null) {
+                affectedSourceIds.add(origin.getId());
+            }
+
+        });
+
+        //  Compute the net power diff of each affected source, so that powers which are kept aren't revoked and
+        //  re-granted (which would reset their state)
         PowerHolderComponent powerComponent = PowerHolderComponent.KEY.get(player);
-        RegistryOps<JsonElement> jsonOps = player.getRegistryManager().getOps(JsonOps.INSTANCE);
 
-        if (oldOrigin != null) {
+        Map<Identifier, Collection<Power>> powersToGrant = new LinkedHashMap<>();
+        Map<Identifier, Collection<Power>> powersToRevoke = new LinkedHashMap<>();
+
+        for (Identifier sourceId : affectedSourceIds) {
+
+            List<Origin> sourceOrigins = newOrigins.values()
+                .stream()
+                .filter(origin -> origin.getId().equals(sourceId))
+                .distinct()
+                .toList();
+
+            List<Power> currentPowers = List.copyOf(powerComponent.getPowersFromSource(sourceId));
+            Set<Identifier> currentPowerIds = new ObjectOpenHashSet<>(currentPowers.size());
 
-            JsonElement oldOriginJson = Origin.DATA_TYPE.write(jsonOps, oldOrigin).getOrThrow(JsonParseException::new);
-            JsonElement originJson = Origin.DATA_TYPE.write(jsonOps, origin).getOrThrow(JsonParseException::new);
+            for (Power power : currentPowers) {
+                currentPowerIds.add(power.getId());
+            }
+
+            for (Origin origin : sourceOrigins) {
+                for (Power power : origin.getPowers()) {
+                    if (!currentPowerIds.contains(power.getId())) {
+                        powersToGrant.computeIfAbsent(sourceId, k -> new ObjectLinkedOpenHashSet<>()).add(power);
+                    }
+                }
+            }
 
-            if (!oldOrigin.getId().equals(origin.getId())) {
-                PowerHolderComponent.revokeAllPowersFromSource(player, oldOrigin.getId(), true);
+            for (Power power : currentPowers) {
+                if (sourceOrigins.stream().noneMatch(origin -> origin.hasPower(power))) {
+                    powersToRevoke.computeIfAbsent(sourceId, k -> new ArrayList<>()).add(power);
+                }
             }
 
-            else if (!oldOriginJson.equals(originJson)) {
-                revokeRemovedPowers(origin, powerComponent);
+        }
+
+        if (!powersToGrant.isEmpty()) {
+            PowerHolderComponent.grantPowers(player, powersToGrant, true);
+        }
+
+        boolean revoked = false;
+        for (Map.Entry<Identifier, Collection<Power>> entry : powersToRevoke.entrySet()) {
+            for (Power power : entry.getValue()) {
+                revoked |= powerComponent.removePower(power, entry.getKey());
             }
+        }
 
+        if (revoked) {
+            PowerHolderComponent.PacketHandlers.REVOKE_POWERS.sync(player, powersToRevoke);
         }
 
-        grantPowersFromOrigin(origin);
-        this.origins.put(layer, origin);
+        OriginStore store = getStore();
+        changes.forEach((layer, origin) -> {
+
+            if (origin != null) {
+                origins.put(layer, origin);
+            } else {
+                origins.remove(layer);
+            }
+
+            if (store == null) {
+                return;
+            }
+
+            if (origin != null && origin != Origin.EMPTY) {
+                store.put(player.getUuid(), layer.getId(), origin.getId());
+            } else {
+                store.remove(player.getUuid(), layer.getId());
+            }
 
+        });
+
+        invalidateIndex();
         if (this.hasAllOrigins()) {
             this.hadOriginBefore = true;
         }
 
         if (player instanceof ServerPlayerEntity spe) {
-            ChoseOriginCriterion.INSTANCE.trigger(spe, origin);
+            changes.values()
+                .stream()
+                .filter(Objects::nonNull)
+                .forEach(origin -> ChoseOriginCriterion.INSTANCE.trigger(spe, origin));
         }
 
     }
 
+    /**
+     *  @return the origin store to mirror changes to, or {@code null} if this component is not on the logical server
+     */
+    @Nullable
+    private OriginStore getStore() {
+        return player.getWorld().isClient ? null : OriginStores.get();
+    }
+
+    /**
+     *  Computes which rows of the store differ from the origins of the player, and updates them. The diff is computed on
+     *  a virtual thread if the store {@linkplain OriginStore#supportsAsyncReads() supports it}, in which case it's only
+     *  applied to the layers whose origin didn't change in the meantime.
+     */
+    private void reconcileStore(OriginStore store) {
+
+        UUID playerUuid = player.getUuid();
+        Map<Identifier, Identifier> originIds = getOriginIds();
+
+        if (!store.supportsAsyncReads()) {
+            applyStoreDiff(store, StoreDiff.of(originIds, store.getOrigins(playerUuid)));
+            return;
+        }
+
+        Origins.SCHEDULER
+            .supplyAsync("origins:store_reconciliation", () -> StoreDiff.of(originIds, store.getOrigins(playerUuid)))
+            .thenOnServer((server, diff) -> {
+
+                //  The store may have been replaced if the server restarted in the meantime
+                if (OriginStores.get() == store) {
+                    applyStoreDiff(store, diff);
+                }
+
+            });
+
+    }
+
+    private void applyStoreDiff(OriginStore store, StoreDiff diff) {
+
+        UUID playerUuid = player.getUuid();
+        Map<Identifier, Identifier> originIds = getOriginIds();
+
+        diff.puts().forEach((layerId, originId) -> {
+            if (originId.equals(originIds.get(layerId))) {
+                store.put(playerUuid, layerId, originId);
+            }
+        });
+
+        diff.removals().forEach(layerId -> {
+            if (!originIds.containsKey(layerId)) {
+                store.remove(playerUuid, layerId);
+            }
+        });
+
+    }
+
+    /**
+     *  @return the IDs of the origins of the player by the IDs of their layers, without the layers with an empty origin
+     */
+    private Map<Identifier, Identifier> getOriginIds() {
+
+        Map<Identifier, Identifier> originIds = new HashMap<>();
+        origins.forEach((layer, origin) -> {
+            if (origin != Origin.EMPTY) {
+                originIds.put(layer.getId(), origin.getId());
+            }
+        });
+
+        return originIds;
+
+    }
+
     private void grantPowersFromOrigin(Origin origin) {
         PowerHolderComponent.grantPowers(this.player, Map.of(origin.getId(), origin.getPowers()), true);
     }
@@ -164,13 +424,6 @@ public class PlayerOriginComponent implements OriginComponent {
 
     }
 
-    @Override
-    public void serverTick() {
-        if (!selectingOrigin && invulnerabilityTicks > 0) {
-            invulnerabilityTicks--;
-        }
-    }
-
     @Override
     public void readFromNbt(@NotNull NbtCompound compoundTag, RegistryWrapper.WrapperLookup wrapperLookup) {
 
@@ -179,6 +432,16 @@ public class PlayerOriginComponent implements OriginComponent {
             return;
         }
 
+        //  The data may refer to origins and layers that were received, but not published yet, so read it once they are
+        if (player.getWorld().isClient && ClientRegistrySync.isPending()) {
+
+            NbtCompound pendingTag = compoundTag.copy();
+            ClientRegistrySync.runAfterSync(() -> this.readFromNbt(pendingTag, wrapperLookup));
+
+            return;
+
+        }
+
         PowerHolderComponent powerComponent = PowerHolderComponent.KEY.get(player);
         origins.clear();
 
@@ -225,6 +488,8 @@ public class PlayerOriginComponent implements OriginComponent {
 
         }
 
+        invalidateIndex();
+
         selectingOrigin = compoundTag.getBoolean("SelectingOrigin");
         hadOriginBefore = compoundTag.getBoolean("HadOriginBefore");
 
@@ -232,6 +497,12 @@ public class PlayerOriginComponent implements OriginComponent {
             return;
         }
 
+        //  Bring the origin store up to date with the NBT of the player, which remains the authoritative source
+        OriginStore store = OriginStores.get();
+        if (store != null) {
+            reconcileStore(store);
+        }
+
         for (Origin origin : origins.values()) {
             //  Grant powers only if the player doesn't have them yet from the specific Origin source.
             //  Needed in case the origin was set before the update to Apoli happened.
@@ -307,4 +578,28 @@ public class PlayerOriginComponent implements OriginComponent {
         ModComponents.ORIGIN.sync(player);
     }
 
+    /**
+     *  @param puts     the origins to put into the store, by the IDs of their layers
+     *  @param removals the IDs of the layers to remove from the store, which the player doesn't have an origin in anymore
+     */
+    private record StoreDiff(Map<Identifier, Identifier> puts, Set<Identifier> removals) {
+
+        private static StoreDiff of(Map<Identifier, Identifier> originIds, Map<Identifier, Identifier> storedOriginIds) {
+
+            Map<Identifier, Identifier> puts = new HashMap<>();
+            originIds.forEach((layerId, originId) -> {
+                if (!originId.equals(storedOriginIds.get(layerId))) {
+                    puts.put(layerId, originId);
+                }
+            });
+
+            Set<Identifier> removals = new HashSet<>(storedOriginIds.keySet());
+            removals.removeAll(originIds.keySet());
+
+            return new StoreDiff(puts, removals);
+
+        }
+
+    }
+
 }
@@ -6,6 +6,7 @@ import com.mojang.serialization.Codec;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import io.github.apace100.origins.component.OriginComponent;
+import io.github.apace100.origins.component.OriginTransaction;
 import io.github.apace100.origins.networking.packet.s2c.OpenChooseOriginScreenS2CPacket;
 import io.github.apace100.origins.origin.*;
 import io.github.apace100.origins.registry.ModComponents;
@@ -97,6 +98,8 @@ public class ItemOriginsComponent implements TooltipAppender {
         }
 
         OriginComponent originComponent = ModComponents.ORIGIN.get(player);
+        OriginTransaction transaction = originComponent.transaction();
+
         boolean assignedOrigin = false;
 
         for (Entry entry : entries) {
@@ -105,7 +108,7 @@ public class ItemOriginsComponent implements TooltipAppender {
                 continue;
             }
 
-            originComponent.setOrigin(OriginLayerManager.get(entry.layerId()), OriginManager.get(entry.originId()));
+            transaction.set(OriginLayerManager.get(entry.layerId()), OriginManager.get(entry.originId()));
             assignedOrigin = true;
 
         }
@@ -114,9 +117,11 @@ public class ItemOriginsComponent implements TooltipAppender {
             OriginLayerManager.values()
                 .stream()
                 .filter(OriginLayer::isEnabled)
-                .forEach(layer -> originComponent.setOrigin(layer, Origin.EMPTY));
+                .forEach(layer -> transaction.set(layer, Origin.EMPTY));
         }
 
+        transaction.commit();
+
         assignedOrigin |= originComponent.checkAutoChoosingLayers(player, false);
         int originOptions = OriginLayerManager.getOriginOptionCount(player);
 
@@ -124,7 +129,7 @@ public class ItemOriginsComponent implements TooltipAppender {
         originComponent.sync();
 
         if (originComponent.isSelectingOrigin()) {
-            ServerPlayNetworking.send(player, new OpenChooseOriginScreenS2CPacket(false));
+            ServerPlayNetworking.send(player, new OpenChooseOriginScreenS2CPacket(false, OriginOptions.of(player)));
         }
 
     }
@@ -0,0 +1,23 @@
+package io.github.apace100.origins.condition.entity.type;
+
+import io.github.apace100.apoli.condition.factory.ConditionTypeFactory;
+import io.github.apace100.calio.data.SerializableData;
+import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.util.ExposureCache;
+import net.minecraft.entity.Entity;
+
+/**
+ *  Replaces the {@code apoli:exposed_to_sun} condition for the {@code origins} namespace with one that reads from the
+ *  {@link ExposureCache} of the world.
+ */
+public class ExposedToSunConditionType {
+
+    public static ConditionTypeFactory<Entity> getFactory() {
+        return new ConditionTypeFactory<>(
+            Origins.identifier("exposed_to_sun"),
+            new SerializableData(),
+            (data, entity) -> ExposureCache.isExposedToSun(entity)
+        );
+    }
+
+}
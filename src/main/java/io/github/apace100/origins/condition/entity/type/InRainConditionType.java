@@ -0,0 +1,23 @@
+package io.github.apace100.origins.condition.entity.type;
+
+import io.github.apace100.apoli.condition.factory.ConditionTypeFactory;
+import io.github.apace100.calio.data.SerializableData;
+import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.util.ExposureCache;
+import net.minecraft.entity.Entity;
+
+/**
+ *  Replaces the {@code apoli:in_rain} condition for the {@code origins} namespace with one that reads from the
+ *  {@link ExposureCache} of the world.
+ */
+public class InRainConditionType {
+
+    public static ConditionTypeFactory<Entity> getFactory() {
+        return new ConditionTypeFactory<>(
+            Origins.identifier("in_rain"),
+            new SerializableData(),
+            (data, entity) -> ExposureCache.isBeingRainedOn(entity)
+        );
+    }
+
+}
@@ -5,9 +5,6 @@ import io.github.apace100.calio.data.SerializableData;
 import io.github.apace100.calio.data.SerializableDataTypes;
 import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.component.OriginComponent;
-import io.github.apace100.origins.origin.Origin;
-import io.github.apace100.origins.origin.OriginLayer;
-import io.github.apace100.origins.origin.OriginLayerManager;
 import io.github.apace100.origins.registry.ModComponents;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.Identifier;
@@ -22,21 +19,9 @@ public class OriginConditionType {
             return false;
         }
 
-        if (layerId == null) {
-            return originComponent.getOrigins().values()
-                .stream()
-                .map(Origin::getId)
-                .anyMatch(originId::equals);
-        }
-
-        OriginLayer layer = OriginLayerManager.getNullable(layerId);
-        if (layer == null) {
-            return false;
-        }
-
-        Origin origin = originComponent.getOrigin(layer);
-        return origin != null
-            && origin.getId().equals(originId);
+        return layerId == null
+            ? originComponent.hasOrigin(originId)
+            : originComponent.hasOrigin(originId, layerId);
 
     }
 
@@ -2,6 +2,8 @@ package io.github.apace100.origins.condition.factory.entity;
 
 import io.github.apace100.apoli.condition.factory.ConditionTypeFactory;
 import io.github.apace100.apoli.registry.ApoliRegistries;
+import io.github.apace100.origins.condition.entity.type.ExposedToSunConditionType;
+import io.github.apace100.origins.condition.entity.type.InRainConditionType;
 import io.github.apace100.origins.condition.entity.type.OriginConditionType;
 import net.minecraft.entity.Entity;
 import net.minecraft.registry.Registry;
@@ -10,6 +12,8 @@ public class OriginsEntityConditions {
 
     public static void register() {
         register(OriginConditionType.getFactory());
+        register(InRainConditionType.getFactory());
+        register(ExposedToSunConditionType.getFactory());
     }
 
     private static void register(ConditionTypeFactory<Entity> conditionFactory) {
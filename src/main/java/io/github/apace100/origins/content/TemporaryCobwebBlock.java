@@ -9,7 +9,6 @@ import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
 import net.minecraft.world.BlockView;
 import net.minecraft.world.World;
-import net.minecraft.world.tick.OrderedTick;
 
 public class TemporaryCobwebBlock extends CobwebBlock {
 
@@ -17,11 +16,14 @@ public class TemporaryCobwebBlock extends CobwebBlock {
 		super(settings);
 	}
 
+	/**
+	 *	Only runs for webs that were placed before their expiry was handled by {@link TemporaryCobwebManager}, and thus still
+	 *	have a block tick scheduled. These are handed over to the manager to expire with the next batch, so that webs are
+	 *	only ever removed by the manager.
+	 */
 	@Override
 	public void scheduledTick(BlockState state, ServerWorld world, BlockPos pos, Random random) {
-		if(!world.isClient) {
-			world.setBlockState(pos, Blocks.AIR.getDefaultState());
-		}
+		TemporaryCobwebManager.add(world, pos, 0);
 	}
 
 	@Override
@@ -36,8 +38,18 @@ public class TemporaryCobwebBlock extends CobwebBlock {
 
 	@Override
 	public void onBlockAdded(BlockState state, World worldIn, BlockPos pos, BlockState oldState, boolean isMoving) {
-		worldIn.scheduleBlockTick(pos, this, 60);
+		if(worldIn instanceof ServerWorld serverWorld) {
+			TemporaryCobwebManager.add(serverWorld, pos, TemporaryCobwebManager.LIFETIME_TICKS);
+		}
 		super.onBlockAdded(state, worldIn, pos, oldState, isMoving);
 	}
 
+	@Override
+	protected void onStateReplaced(BlockState state, World world, BlockPos pos, BlockState newState, boolean moved) {
+		if(!newState.isOf(this) && world instanceof ServerWorld serverWorld) {
+			TemporaryCobwebManager.remove(serverWorld, pos);
+		}
+		super.onStateReplaced(state, world, pos, newState, moved);
+	}
+
 }
@@ -0,0 +1,103 @@
+package io.github.apace100.origins.content;
+
+import com.mojang.serialization.Codec;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+import java.util.stream.LongStream;
+
+/**
+ *  The temporary cobwebs of a chunk, mapping their packed positions to the world time at which they expire. Attached to
+ *  chunks, so that the webs still expire after the chunk is unloaded and loaded again.
+ */
+public class TemporaryCobwebExpiries {
+
+    public static final Codec<TemporaryCobwebExpiries> CODEC = Codec.LONG_STREAM.xmap(TemporaryCobwebExpiries::fromPacked, TemporaryCobwebExpiries::toPacked);
+
+    private final Long2LongOpenHashMap expiryTimes = new Long2LongOpenHashMap();
+
+    public void put(long pos, long expiryTime) {
+        expiryTimes.put(pos, expiryTime);
+    }
+
+    public boolean remove(long pos) {
+
+        if (!expiryTimes.containsKey(pos)) {
+            return false;
+        }
+
+        expiryTimes.remove(pos);
+        return true;
+
+    }
+
+    public int size() {
+        return expiryTimes.size();
+    }
+
+    public boolean isEmpty() {
+        return expiryTimes.isEmpty();
+    }
+
+    /**
+     *  @return the distinct expiry times of the webs
+     */
+    public LongStream expiryTimes() {
+        return expiryTimes.values().longStream().distinct();
+    }
+
+    /**
+     *  Removes the webs that expire at or before the specified world time.
+     *
+     *  @return the packed positions of the removed webs
+     */
+    public LongList removeExpired(long time) {
+
+        LongList expiredPositions = new LongArrayList();
+        ObjectIterator<Long2LongMap.Entry> iterator = expiryTimes.long2LongEntrySet().fastIterator();
+
+        while (iterator.hasNext()) {
+
+            Long2LongMap.Entry entry = iterator.next();
+            if (entry.getLongValue() <= time) {
+                expiredPositions.add(entry.getLongKey());
+                iterator.remove();
+            }
+
+        }
+
+        return expiredPositions;
+
+    }
+
+    private static TemporaryCobwebExpiries fromPacked(LongStream packed) {
+
+        TemporaryCobwebExpiries expiries = new TemporaryCobwebExpiries();
+        long[] values = packed.toArray();
+
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            expiries.put(values[i], values[i + 1]);
+        }
+
+        return expiries;
+
+    }
+
+    private LongStream toPacked() {
+
+        long[] values = new long[expiryTimes.size() * 2];
+        int i = 0;
+
+        for (Long2LongMap.Entry entry : expiryTimes.long2LongEntrySet()) {
+            values[i++] = entry.getLongKey();
+            values[i++] = entry.getLongValue();
+        }
+
+        return LongStream.of(values);
+
+    }
+
+}
@@ -0,0 +1,251 @@
+package io.github.apace100.origins.content;
+
+import io.github.apace100.origins.registry.ModAttachments;
+import io.github.apace100.origins.registry.ModBlocks;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ *  Expires {@link TemporaryCobwebBlock temporary cobwebs} in batches. The expiry times of the webs are stored per chunk
+ *  (see {@link TemporaryCobwebExpiries}), and every world keeps an index of its loaded chunks by the expiry times of
+ *  their webs. Every tick, the chunks with expired webs are visited once, and their webs are removed section by section.
+ */
+public class TemporaryCobwebManager {
+
+    public static final int LIFETIME_TICKS = 60;
+
+    private static final Map<ServerWorld, TemporaryCobwebManager> MANAGERS = new WeakHashMap<>();
+
+    private final ServerWorld world;
+
+    private final Long2ObjectRBTreeMap<LongSet> chunksByExpiryTime = new Long2ObjectRBTreeMap<>();
+    private final Long2IntOpenHashMap pendingCountsByChunk = new Long2IntOpenHashMap();
+
+    private int pendingCount;
+    private long expiredCount;
+
+    private TemporaryCobwebManager(ServerWorld world) {
+        this.world = world;
+    }
+
+    public static void init() {
+
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+
+            TemporaryCobwebManager manager = MANAGERS.get(world);
+            if (manager != null) {
+                manager.tick();
+            }
+
+        });
+
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+
+            TemporaryCobwebExpiries expiries = chunk.getAttached(ModAttachments.TEMPORARY_COBWEB_EXPIRIES);
+            if (expiries != null && !expiries.isEmpty()) {
+                MANAGERS.computeIfAbsent(world, TemporaryCobwebManager::new).indexChunk(chunk.getPos().toLong(), expiries);
+            }
+
+        });
+
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+
+            TemporaryCobwebManager manager = MANAGERS.get(world);
+            if (manager != null) {
+                manager.unindexChunk(chunk.getPos().toLong());
+            }
+
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> MANAGERS.clear());
+
+    }
+
+    /**
+     *  Starts tracking a temporary cobweb, which is removed after the specified number of ticks.
+     */
+    public static void add(ServerWorld world, BlockPos pos, int lifetimeTicks) {
+
+        WorldChunk chunk = world.getWorldChunk(pos);
+        TemporaryCobwebExpiries expiries = chunk.getAttachedOrCreate(ModAttachments.TEMPORARY_COBWEB_EXPIRIES);
+
+        long chunkPos = chunk.getPos().toLong();
+        long expiryTime = world.getTime() + lifetimeTicks;
+
+        TemporaryCobwebManager manager = MANAGERS.computeIfAbsent(world, TemporaryCobwebManager::new);
+        if (!expiries.remove(pos.asLong())) {
+            manager.pendingCount++;
+            manager.pendingCountsByChunk.addTo(chunkPos, 1);
+        }
+
+        expiries.put(pos.asLong(), expiryTime);
+        manager.chunksByExpiryTime.computeIfAbsent(expiryTime, k -> new LongOpenHashSet()).add(chunkPos);
+
+        chunk.setNeedsSaving(true);
+
+    }
+
+    /**
+     *  Stops tracking the temporary cobweb at the specified position, e.g. because it was broken before it expired.
+     */
+    public static void remove(ServerWorld world, BlockPos pos) {
+
+        WorldChunk chunk = world.getWorldChunk(pos);
+        TemporaryCobwebExpiries expiries = chunk.getAttached(ModAttachments.TEMPORARY_COBWEB_EXPIRIES);
+
+        if (expiries == null || !expiries.remove(pos.asLong())) {
+            return;
+        }
+
+        if (MANAGERS.get(world) instanceof TemporaryCobwebManager manager) {
+            manager.decrementPending(chunk.getPos().toLong(), 1);
+        }
+
+        if (expiries.isEmpty()) {
+            chunk.removeAttached(ModAttachments.TEMPORARY_COBWEB_EXPIRIES);
+        }
+
+        chunk.setNeedsSaving(true);
+
+    }
+
+    /**
+     *  @return the number of temporary cobwebs waiting to expire in the loaded chunks of the world
+     */
+    public static int getPendingCount(ServerWorld world) {
+        return MANAGERS.get(world) instanceof TemporaryCobwebManager manager ? manager.pendingCount : 0;
+    }
+
+    /**
+     *  @return the number of loaded chunks of the world with temporary cobwebs waiting to expire
+     */
+    public static int getPendingChunkCount(ServerWorld world) {
+        return MANAGERS.get(world) instanceof TemporaryCobwebManager manager ? manager.pendingCountsByChunk.size() : 0;
+    }
+
+    /**
+     *  @return the number of temporary cobwebs of the world that expired since the server started
+     */
+    public static long getExpiredCount(ServerWorld world) {
+        return MANAGERS.get(world) instanceof TemporaryCobwebManager manager ? manager.expiredCount : 0;
+    }
+
+    private void indexChunk(long chunkPos, TemporaryCobwebExpiries expiries) {
+
+        unindexChunk(chunkPos);
+
+        pendingCount += expiries.size();
+        pendingCountsByChunk.put(chunkPos, expiries.size());
+
+        expiries.expiryTimes().forEach(expiryTime -> chunksByExpiryTime.computeIfAbsent(expiryTime, k -> new LongOpenHashSet()).add(chunkPos));
+
+    }
+
+    /**
+     *  Stops tracking the webs of an unloaded chunk. Its entries in {@link #chunksByExpiryTime} are skipped once they
+     *  come up, rather than searched for here.
+     */
+    private void unindexChunk(long chunkPos) {
+        pendingCount -= pendingCountsByChunk.remove(chunkPos);
+    }
+
+    private void decrementPending(long chunkPos, int count) {
+
+        pendingCount -= count;
+        if (pendingCountsByChunk.addTo(chunkPos, -count) <= count) {
+            pendingCountsByChunk.remove(chunkPos);
+        }
+
+    }
+
+    private void tick() {
+
+        long time = world.getTime();
+        while (!chunksByExpiryTime.isEmpty() && chunksByExpiryTime.firstLongKey() <= time) {
+
+            LongSet chunkPositions = chunksByExpiryTime.remove(chunksByExpiryTime.firstLongKey());
+            for (long chunkPos : chunkPositions) {
+                if (pendingCountsByChunk.containsKey(chunkPos)) {
+                    expireWebs(chunkPos, time);
+                }
+            }
+
+        }
+
+    }
+
+    private void expireWebs(long chunkPos, long time) {
+
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos));
+        TemporaryCobwebExpiries expiries = chunk != null ? chunk.getAttached(ModAttachments.TEMPORARY_COBWEB_EXPIRIES) : null;
+
+        if (expiries == null) {
+            unindexChunk(chunkPos);
+            return;
+        }
+
+        LongList expiredPositions = expiries.removeExpired(time);
+        if (expiredPositions.isEmpty()) {
+            return;
+        }
+
+        decrementPending(chunkPos, expiredPositions.size());
+        if (expiries.isEmpty()) {
+            chunk.removeAttached(ModAttachments.TEMPORARY_COBWEB_EXPIRIES);
+        }
+
+        //  Group the webs by chunk section, so that sections without any webs left can be skipped as a whole
+        Int2ObjectOpenHashMap<LongList> positionsBySection = new Int2ObjectOpenHashMap<>();
+        for (int i = 0; i < expiredPositions.size(); i++) {
+            long pos = expiredPositions.getLong(i);
+            positionsBySection.computeIfAbsent(chunk.getSectionIndex(BlockPos.unpackLongY(pos)), k -> new LongArrayList()).add(pos);
+        }
+
+        BlockPos.Mutable mutablePos = new BlockPos.Mutable();
+        BlockState air = Blocks.AIR.getDefaultState();
+
+        positionsBySection.forEach((sectionIndex, positions) -> {
+
+            ChunkSection section = sectionIndex >= 0 && sectionIndex < chunk.getSectionArray().length ? chunk.getSection(sectionIndex) : null;
+            if (section == null || !section.hasAny(state -> state.isOf(ModBlocks.TEMPORARY_COBWEB))) {
+                return;
+            }
+
+            for (int i = 0; i < positions.size(); i++) {
+
+                mutablePos.set(positions.getLong(i));
+
+                BlockState state = section.getBlockState(ChunkSectionPos.getLocalCoord(mutablePos.getX()), ChunkSectionPos.getLocalCoord(mutablePos.getY()), ChunkSectionPos.getLocalCoord(mutablePos.getZ()));
+                if (state.isOf(ModBlocks.TEMPORARY_COBWEB) && world.setBlockState(mutablePos, air, Block.NOTIFY_ALL)) {
+                    expiredCount++;
+                }
+
+            }
+
+        });
+
+        chunk.setNeedsSaving(true);
+
+    }
+
+}
@@ -48,7 +48,7 @@ public final class OriginsDataTypes {
 			@Override
 			public <T> DataResult<T> encode(OriginLayer.ConditionedOrigin input, DynamicOps<T> ops, T prefix) {
 
-                if (input.condition() == null && input.origins().size() == 1) {
+                if (input.condition() == null && input.origins().size() == 1 && input.randomWeight() == OriginLayer.ConditionedOrigin.DEFAULT_RANDOM_WEIGHT) {
                     return SerializableDataTypes.IDENTIFIER.write(ops, input.origins().getFirst());
                 }
 
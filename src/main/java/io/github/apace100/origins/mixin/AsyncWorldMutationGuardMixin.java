@@ -0,0 +1,39 @@
+package io.github.apace100.origins.mixin;
+
+import io.github.apace100.origins.util.AsyncTask;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ *  Makes sure that the work of {@linkplain AsyncTask async tasks} doesn't modify worlds.
+ */
+public final class AsyncWorldMutationGuardMixin {
+
+    @Mixin(World.class)
+    public static abstract class SetBlockState {
+
+        @Inject(method = "setBlockState(Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/BlockState;II)Z", at = @At("HEAD"))
+        private void origins$guardSetBlockState(BlockPos pos, BlockState state, int flags, int maxUpdateDepth, CallbackInfoReturnable<Boolean> cir) {
+            AsyncTask.checkNotComputing("set a block state");
+        }
+
+    }
+
+    @Mixin(ServerWorld.class)
+    public static abstract class SpawnEntity {
+
+        @Inject(method = "spawnEntity", at = @At("HEAD"))
+        private void origins$guardSpawnEntity(Entity entity, CallbackInfoReturnable<Boolean> cir) {
+            AsyncTask.checkNotComputing("spawn an entity");
+        }
+
+    }
+
+}
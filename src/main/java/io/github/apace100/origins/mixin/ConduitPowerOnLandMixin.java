@@ -4,6 +4,7 @@ import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
 import com.llamalad7.mixinextras.sugar.Local;
 import io.github.apace100.apoli.component.PowerHolderComponent;
 import io.github.apace100.origins.power.type.ConduitPowerOnLandPowerType;
+import io.github.apace100.origins.power.type.PowerTypePresence;
 import net.minecraft.block.entity.ConduitBlockEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import org.spongepowered.asm.mixin.Mixin;
@@ -15,7 +16,7 @@ public abstract class ConduitPowerOnLandMixin {
     @ModifyExpressionValue(method = "givePlayersEffects", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/player/PlayerEntity;isTouchingWaterOrRain()Z"))
     private static boolean origins$applyConduitPower(boolean original, @Local PlayerEntity player) {
         return original
-            || PowerHolderComponent.hasPowerType(player, ConduitPowerOnLandPowerType.class);
+            || PowerTypePresence.mayHave(player, PowerTypePresence.CONDUIT_POWER_ON_LAND) && PowerHolderComponent.hasPowerType(player, ConduitPowerOnLandPowerType.class);
     }
 
 }
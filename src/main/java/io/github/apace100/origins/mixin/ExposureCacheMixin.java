@@ -0,0 +1,38 @@
+package io.github.apace100.origins.mixin;
+
+import io.github.apace100.origins.access.ExposureCacheHolder;
+import io.github.apace100.origins.util.ExposureCache;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerWorld.class)
+public abstract class ExposureCacheMixin implements ExposureCacheHolder {
+
+    @Unique
+    private ExposureCache origins$exposureCache;
+
+    @Override
+    public ExposureCache origins$getExposureCache() {
+
+        if (origins$exposureCache == null) {
+            origins$exposureCache = new ExposureCache((ServerWorld) (Object) this);
+        }
+
+        return origins$exposureCache;
+
+    }
+
+    @Inject(method = "onBlockChanged", at = @At("HEAD"))
+    private void origins$invalidateExposure(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo ci) {
+        if (origins$exposureCache != null) {
+            origins$exposureCache.invalidateColumn(pos);
+        }
+    }
+
+}
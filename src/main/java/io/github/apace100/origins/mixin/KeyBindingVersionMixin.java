@@ -0,0 +1,27 @@
+package io.github.apace100.origins.mixin;
+
+import io.github.apace100.origins.util.KeyBindingUtil;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.option.KeyBinding;
+import net.minecraft.client.util.InputUtil;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Environment(EnvType.CLIENT)
+@Mixin(KeyBinding.class)
+public abstract class KeyBindingVersionMixin {
+
+    @Inject(method = "setBoundKey", at = @At("TAIL"))
+    private void origins$bumpVersionOnRebind(InputUtil.Key boundKey, CallbackInfo ci) {
+        KeyBindingUtil.onKeyBindingsChanged();
+    }
+
+    @Inject(method = "updateKeysByCode", at = @At("TAIL"))
+    private static void origins$bumpVersionOnUpdate(CallbackInfo ci) {
+        KeyBindingUtil.onKeyBindingsChanged();
+    }
+
+}
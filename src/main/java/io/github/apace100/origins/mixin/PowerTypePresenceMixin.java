@@ -0,0 +1,37 @@
+package io.github.apace100.origins.mixin;
+
+import io.github.apace100.origins.access.PowerTypePresenceHolder;
+import net.minecraft.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(LivingEntity.class)
+public abstract class PowerTypePresenceMixin implements PowerTypePresenceHolder {
+
+    @Unique
+    private int origins$powerTypeFlags;
+
+    @Unique
+    private int origins$stalePowerTypeFlags;
+
+    @Override
+    public int origins$getPowerTypeFlags() {
+        return origins$powerTypeFlags;
+    }
+
+    @Override
+    public void origins$setPowerTypeFlags(int flags) {
+        this.origins$powerTypeFlags = flags;
+    }
+
+    @Override
+    public int origins$getStalePowerTypeFlags() {
+        return origins$stalePowerTypeFlags;
+    }
+
+    @Override
+    public void origins$setStalePowerTypeFlags(int flags) {
+        this.origins$stalePowerTypeFlags = flags;
+    }
+
+}
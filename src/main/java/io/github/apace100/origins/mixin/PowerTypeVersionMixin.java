@@ -0,0 +1,25 @@
+package io.github.apace100.origins.mixin;
+
+import io.github.apace100.apoli.power.Power;
+import io.github.apace100.apoli.power.type.PowerType;
+import io.github.apace100.origins.util.PowerTypeVersion;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Environment(EnvType.CLIENT)
+@Mixin(PowerType.class)
+public abstract class PowerTypeVersionMixin {
+
+    @Inject(method = "<init>", at = @At("TAIL"))
+    private void origins$bumpVersionOnCreate(Power power, LivingEntity entity, CallbackInfo ci) {
+        if (entity != null && entity.getWorld().isClient) {
+            PowerTypeVersion.onPowerTypesChanged();
+        }
+    }
+
+}
@@ -1,18 +1,31 @@
 package io.github.apace100.origins.mixin;
 
 import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
-import io.github.apace100.origins.component.OriginComponent;
-import io.github.apace100.origins.registry.ModComponents;
+import io.github.apace100.origins.access.SelectionInvulnerableEntity;
 import net.minecraft.entity.Entity;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 
 @Mixin(Entity.class)
-public abstract class SelectionInvulnerabilityMixin {
+public abstract class SelectionInvulnerabilityMixin implements SelectionInvulnerableEntity {
+
+    @Unique
+    private boolean origins$selectionInvulnerability;
+
+    @Override
+    public boolean origins$hasSelectionInvulnerability() {
+        return origins$selectionInvulnerability;
+    }
+
+    @Override
+    public void origins$setSelectionInvulnerability(boolean selectionInvulnerability) {
+        this.origins$selectionInvulnerability = selectionInvulnerability;
+    }
 
     @ModifyExpressionValue(method = "isInvulnerableTo", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/Entity;invulnerable:Z"))
     private boolean origins$makePlayerInvulnerable(boolean original) {
-        return original || ModComponents.ORIGIN.maybeGet(this).map(OriginComponent::hasSelectionInvulnerability).orElse(false);
+        return original || origins$selectionInvulnerability;
     }
 
 }
@@ -3,6 +3,7 @@ package io.github.apace100.origins.mixin;
 import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
 import com.llamalad7.mixinextras.injector.ModifyReturnValue;
 import io.github.apace100.apoli.component.PowerHolderComponent;
+import io.github.apace100.origins.power.type.PowerTypePresence;
 import io.github.apace100.origins.power.type.WaterBreathingPowerType;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -26,7 +27,7 @@ public final class WaterBreathingMixin {
         @ModifyReturnValue(method = "canBreatheInWater", at = @At("RETURN"))
         private boolean origins$breatheUnderwater(boolean original) {
             return original
-                || PowerHolderComponent.hasPowerType(this, WaterBreathingPowerType.class);
+                || PowerTypePresence.mayHave(this, PowerTypePresence.WATER_BREATHING) && PowerHolderComponent.hasPowerType(this, WaterBreathingPowerType.class);
         }
 
         @Inject(method = "baseTick", at = @At("TAIL"))
@@ -45,7 +46,7 @@ public final class WaterBreathingMixin {
 
         @ModifyExpressionValue(method = "updateTurtleHelmet", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/player/PlayerEntity;isSubmergedIn(Lnet/minecraft/registry/tag/TagKey;)Z"))
         private boolean origins$submergedProxy(boolean original) {
-            return PowerHolderComponent.hasPowerType(this, WaterBreathingPowerType.class) != original;
+            return (PowerTypePresence.mayHave(this, PowerTypePresence.WATER_BREATHING) && PowerHolderComponent.hasPowerType(this, WaterBreathingPowerType.class)) != original;
         }
 
     }
@@ -3,6 +3,7 @@ package io.github.apace100.origins.mixin;
 import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
 import com.mojang.authlib.GameProfile;
 import io.github.apace100.apoli.component.PowerHolderComponent;
+import io.github.apace100.origins.power.type.PowerTypePresence;
 import io.github.apace100.origins.power.type.WaterVisionPowerType;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -22,7 +23,7 @@ public abstract class WaterVisionMixin extends AbstractClientPlayerEntity {
 
     @ModifyExpressionValue(method = "getUnderwaterVisibility", at = @At(value = "FIELD", target = "Lnet/minecraft/client/network/ClientPlayerEntity;underwaterVisibilityTicks:I", ordinal = 0))
     private int origins$ignoreVisibilityDelay(int original) {
-        return !PowerHolderComponent.hasPowerType(this, WaterVisionPowerType.class)
+        return !PowerTypePresence.mayHave(this, PowerTypePresence.WATER_VISION) || !PowerHolderComponent.hasPowerType(this, WaterVisionPowerType.class)
             ? original
             : 1000;
     }
@@ -0,0 +1,119 @@
+package io.github.apace100.origins.networking;
+
+import io.github.apace100.origins.Origins;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.util.Util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ *  Applies registries synced by the server without stalling the client thread. The received data is prepared (e.g.
+ *  validated and indexed) on a worker thread, and the result is published on the client thread, typically by swapping
+ *  a single reference, so that the client never sees a partially updated registry.
+ *
+ *  <p>Results are published in the order the registries were received, and actions that depend on the registries can be
+ *  queued behind them with {@link #runAfterSync(Runnable)}. Must only be used on the client thread.</p>
+ *
+ *  <p>Pending registries and actions are {@linkplain #clear() dropped} once the client disconnects. Every connection
+ *  starts a new generation, so that registries of a previous connection that are still being prepared are ignored.</p>
+ */
+@Environment(EnvType.CLIENT)
+public final class ClientRegistrySync {
+
+    private static final Queue<PendingSync<?>> PENDING = new ArrayDeque<>();
+
+    private static int generation;
+
+    /**
+     *  @param name     a description of the registry, for error messages
+     *  @param prepare  prepares the received data on a worker thread; must not access anything that is only safe to
+     *                  access on the client thread
+     *  @param publish  publishes the prepared data on the client thread
+     */
+    public static <T> void enqueue(String name, Supplier<T> prepare, Consumer<T> publish) {
+
+        int enqueuedGeneration = generation;
+        CompletableFuture<T> prepared = CompletableFuture.supplyAsync(prepare, Util.getMainWorkerExecutor());
+
+        PENDING.add(new PendingSync<>(name, prepared, publish, enqueuedGeneration));
+        prepared.whenComplete((result, throwable) -> MinecraftClient.getInstance().execute(() -> {
+
+            if (enqueuedGeneration == generation) {
+                publishPrepared();
+            }
+
+        }));
+
+    }
+
+    /**
+     *  Runs the action once every registry received so far has been published.
+     */
+    public static void runAfterSync(Runnable action) {
+
+        if (PENDING.isEmpty()) {
+            action.run();
+            return;
+        }
+
+        PENDING.add(new PendingSync<>("action", CompletableFuture.completedFuture(null), result -> action.run(), generation));
+
+    }
+
+    /**
+     *  @return whether any registry received so far (or any action queued behind one) is yet to be published
+     */
+    public static boolean isPending() {
+        return !PENDING.isEmpty();
+    }
+
+    /**
+     *  Drops the pending registries and actions, and starts a new generation, e.g. once the client disconnects.
+     */
+    public static void clear() {
+        PENDING.clear();
+        generation++;
+    }
+
+    private static void publishPrepared() {
+
+        PendingSync<?> pendingSync;
+        while ((pendingSync = PENDING.peek()) != null && pendingSync.prepared().isDone()) {
+            PENDING.poll();
+            pendingSync.publish();
+        }
+
+    }
+
+    private record PendingSync<T>(String name, CompletableFuture<T> prepared, Consumer<T> publisher, int generation) {
+
+        private void publish() {
+
+            if (generation != ClientRegistrySync.generation) {
+                return;
+            }
+
+            T result;
+            try {
+                result = prepared.join();
+            }
+
+            catch (CompletionException e) {
+                Origins.LOGGER.error("Could not prepare synced {}: {}", name, e.getCause());
+                return;
+            }
+
+            publisher.accept(result);
+
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package io.github.apace100.origins.networking;
 import io.github.apace100.origins.networking.packet.VersionHandshakePacket;
 import io.github.apace100.origins.networking.packet.c2s.ChooseOriginC2SPacket;
 import io.github.apace100.origins.networking.packet.c2s.ChooseRandomOriginC2SPacket;
+import io.github.apace100.origins.networking.packet.c2s.RequestOriginOptionsC2SPacket;
 import io.github.apace100.origins.networking.packet.s2c.OriginsInstalledS2CPacket;
 import io.github.apace100.origins.networking.packet.s2c.*;
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
@@ -20,9 +21,11 @@ public class ModPackets {
         PayloadTypeRegistry.playS2C().register(SyncBadgesS2CPacket.PACKET_ID, SyncBadgesS2CPacket.PACKET_CODEC);
         PayloadTypeRegistry.playS2C().register(SyncOriginLayersS2CPacket.PACKET_ID, SyncOriginLayersS2CPacket.PACKET_CODEC);
         PayloadTypeRegistry.playS2C().register(SyncOriginsS2CPacket.PACKET_ID, SyncOriginsS2CPacket.PACKET_CODEC);
+        PayloadTypeRegistry.playS2C().register(SyncOriginOptionsS2CPacket.PACKET_ID, SyncOriginOptionsS2CPacket.PACKET_CODEC);
 
         PayloadTypeRegistry.playC2S().register(ChooseOriginC2SPacket.PACKET_ID, ChooseOriginC2SPacket.PACKET_CODEC);
         PayloadTypeRegistry.playC2S().register(ChooseRandomOriginC2SPacket.PACKET_ID, ChooseRandomOriginC2SPacket.PACKET_CODEC);
+        PayloadTypeRegistry.playC2S().register(RequestOriginOptionsC2SPacket.PACKET_ID, RequestOriginOptionsC2SPacket.PACKET_CODEC);
 
     }
 
@@ -6,7 +6,9 @@ import io.github.apace100.origins.networking.packet.s2c.OriginsInstalledS2CPacke
 import io.github.apace100.origins.networking.packet.VersionHandshakePacket;
 import io.github.apace100.origins.networking.packet.c2s.ChooseOriginC2SPacket;
 import io.github.apace100.origins.networking.packet.c2s.ChooseRandomOriginC2SPacket;
+import io.github.apace100.origins.networking.packet.c2s.RequestOriginOptionsC2SPacket;
 import io.github.apace100.origins.networking.packet.s2c.ConfirmOriginS2CPacket;
+import io.github.apace100.origins.networking.packet.s2c.SyncOriginOptionsS2CPacket;
 import io.github.apace100.origins.networking.task.VersionHandshakeTask;
 import io.github.apace100.origins.origin.*;
 import io.github.apace100.origins.registry.ModComponents;
@@ -21,7 +23,6 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 
 import java.util.Arrays;
-import java.util.List;
 
 public class ModPacketsC2S {
 
@@ -36,6 +37,7 @@ public class ModPacketsC2S {
 
         ServerPlayNetworking.registerGlobalReceiver(ChooseOriginC2SPacket.PACKET_ID, ModPacketsC2S::onChooseOrigin);
         ServerPlayNetworking.registerGlobalReceiver(ChooseRandomOriginC2SPacket.PACKET_ID, ModPacketsC2S::chooseRandomOrigin);
+        ServerPlayNetworking.registerGlobalReceiver(RequestOriginOptionsC2SPacket.PACKET_ID, ModPacketsC2S::sendOriginOptions);
 
     }
 
@@ -64,7 +66,7 @@ public class ModPacketsC2S {
             component.checkAutoChoosingLayers(player, false);
 
             if (component.hasAllOrigins() && !hadAllOrigins) {
-                OriginComponent.onChosen(player, hadOriginBefore);
+                OriginComponent.onChosen(player, hadOriginBefore, true);
             }
 
             Origins.LOGGER.info("Player {} chose origin \"{}\" for layer \"{}\"", player.getName().getString(), packet.originId(), packet.layerId());
@@ -90,13 +92,12 @@ public class ModPacketsC2S {
             return;
         }
 
-        List<Identifier> randomOriginIds = layer.getRandomOrigins(player);
-        if (!layer.isRandomAllowed() || randomOriginIds.isEmpty()) {
+        Identifier randomOriginId = layer.isRandomAllowed() ? layer.getRandomOrigin(player) : null;
+        if (randomOriginId == null) {
             Origins.LOGGER.warn("Player {} tried to choose a random origin for layer \"{}\", which is not allowed!", player.getName().getString(), packet.layerId());
             component.setOrigin(layer, Origin.EMPTY);
         } else {
 
-            Identifier randomOriginId = randomOriginIds.get(player.getRandom().nextInt(randomOriginIds.size()));
             Origin origin = OriginManager.get(randomOriginId);
 
             boolean hadOriginBefore = component.hadOriginBefore();
@@ -106,7 +107,7 @@ public class ModPacketsC2S {
             component.checkAutoChoosingLayers(player, false);
 
             if (component.hasAllOrigins() && !hadAllOrigins) {
-                OriginComponent.onChosen(player, hadOriginBefore);
+                OriginComponent.onChosen(player, hadOriginBefore, true);
             }
 
             Origins.LOGGER.info("Player {} was randomly assigned the following origin: {}", player.getName().getString(), randomOriginId);
@@ -120,6 +121,10 @@ public class ModPacketsC2S {
 
     }
 
+    private static void sendOriginOptions(RequestOriginOptionsC2SPacket packet, ServerPlayNetworking.Context context) {
+        context.responseSender().sendPacket(new SyncOriginOptionsS2CPacket(OriginOptions.of(context.player())));
+    }
+
     private static void receiveHandshakeReply(VersionHandshakePacket packet, ServerConfigurationNetworking.Context context) {
 
         ServerConfigurationNetworkHandler handler = context.networkHandler();
@@ -156,7 +161,7 @@ public class ModPacketsC2S {
     }
 
     private static void confirmOrigin(ServerPlayerEntity player, OriginLayer layer, Origin origin) {
-        ServerPlayNetworking.send(player, new ConfirmOriginS2CPacket(layer.getId(), origin.getId()));
+        ServerPlayNetworking.send(player, new ConfirmOriginS2CPacket(layer.getId(), origin.getId(), OriginOptions.of(player)));
     }
 
 }
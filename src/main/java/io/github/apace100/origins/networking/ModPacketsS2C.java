@@ -10,6 +10,7 @@ import io.github.apace100.origins.networking.packet.s2c.*;
 import io.github.apace100.origins.origin.*;
 import io.github.apace100.origins.registry.ModComponents;
 import io.github.apace100.origins.screen.ChooseOriginScreen;
+import io.github.apace100.origins.screen.ViewOriginScreen;
 import io.github.apace100.origins.screen.WaitForNextLayerScreen;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.fabricmc.api.EnvType;
@@ -32,6 +33,7 @@ public class ModPacketsS2C {
     public static void register() {
 
         ClientConfigurationConnectionEvents.START.register(ModPacketsS2C::resetOriginsInstallationStatus);
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(ClientRegistrySync::clear));
 
         ClientConfigurationNetworking.registerGlobalReceiver(VersionHandshakePacket.PACKET_ID, ModPacketsS2C::sendHandshakeReply);
         ClientConfigurationNetworking.registerGlobalReceiver(OriginsInstalledS2CPacket.PACKET_ID, ModPacketsS2C::receiveOriginsInstallationStatus);
@@ -39,6 +41,7 @@ public class ModPacketsS2C {
         ClientPlayConnectionEvents.INIT.register(((clientPlayNetworkHandler, minecraftClient) -> {
             ClientPlayNetworking.registerReceiver(ConfirmOriginS2CPacket.PACKET_ID, ModPacketsS2C::receiveOriginConfirmation);
             ClientPlayNetworking.registerReceiver(OpenChooseOriginScreenS2CPacket.PACKET_ID, ModPacketsS2C::openOriginScreen);
+            ClientPlayNetworking.registerReceiver(SyncOriginOptionsS2CPacket.PACKET_ID, ModPacketsS2C::receiveOriginOptions);
             ClientPlayNetworking.registerReceiver(SyncOriginLayersS2CPacket.PACKET_ID, OriginLayerManager::receive);
             ClientPlayNetworking.registerReceiver(SyncOriginsS2CPacket.PACKET_ID, OriginManager::receive);
             ClientPlayNetworking.registerReceiver(SyncBadgesS2CPacket.PACKET_ID, BadgeManager::receive);
@@ -48,36 +51,55 @@ public class ModPacketsS2C {
 
     @Environment(EnvType.CLIENT)
     private static void receiveOriginConfirmation(ConfirmOriginS2CPacket packet, ClientPlayNetworking.Context context) {
+        ClientRegistrySync.runAfterSync(() -> {
 
-        ClientPlayerEntity player = context.player();
+            ClientPlayerEntity player = context.player();
 
-        OriginLayer layer = OriginLayerManager.get(packet.layerId());
-        Origin origin = OriginManager.get(packet.originId());
+            OriginLayer layer = OriginLayerManager.get(packet.layerId());
+            Origin origin = OriginManager.get(packet.originId());
 
-        OriginComponent component = ModComponents.ORIGIN.get(player);
-        component.setOrigin(layer, origin);
+            OriginComponent component = ModComponents.ORIGIN.get(player);
+            component.setOrigin(layer, origin);
 
-        if (MinecraftClient.getInstance().currentScreen instanceof WaitForNextLayerScreen nextLayerScreen) {
-            nextLayerScreen.openSelection();
-        }
+            OriginsClient.originOptions = packet.options();
+            if (MinecraftClient.getInstance().currentScreen instanceof WaitForNextLayerScreen nextLayerScreen) {
+                nextLayerScreen.openSelection(packet.options());
+            }
 
+        });
     }
 
     @Environment(EnvType.CLIENT)
     private static void openOriginScreen(OpenChooseOriginScreenS2CPacket packet, ClientPlayNetworking.Context context) {
+        ClientRegistrySync.runAfterSync(() -> {
 
-        List<OriginLayer> layers = new ObjectArrayList<>();
-        OriginComponent component = ModComponents.ORIGIN.get(context.player());
+            List<OriginLayer> layers = new ObjectArrayList<>();
+            OriginComponent component = ModComponents.ORIGIN.get(context.player());
 
-        OriginLayerManager.values()
-            .stream()
-            .filter(OriginLayer::isEnabled)
-            .filter(Predicate.not(component::hasOrigin))
-            .forEach(layers::add);
+            OriginLayerManager.values()
+                .stream()
+                .filter(OriginLayer::isEnabled)
+                .filter(Predicate.not(component::hasOrigin))
+                .forEach(layers::add);
 
-        Collections.sort(layers);
-        MinecraftClient.getInstance().setScreen(new ChooseOriginScreen(layers, 0, packet.showBackground()));
+            Collections.sort(layers);
+            OriginsClient.originOptions = packet.options();
 
+            MinecraftClient.getInstance().setScreen(new ChooseOriginScreen(layers, 0, packet.showBackground(), packet.options()));
+
+        });
+    }
+
+    @Environment(EnvType.CLIENT)
+    private static void receiveOriginOptions(SyncOriginOptionsS2CPacket packet, ClientPlayNetworking.Context context) {
+        ClientRegistrySync.runAfterSync(() -> {
+
+            OriginsClient.originOptions = packet.options();
+            if (MinecraftClient.getInstance().currentScreen instanceof ViewOriginScreen viewOriginScreen) {
+                viewOriginScreen.updateOptions(packet.options());
+            }
+
+        });
     }
 
     @Environment(EnvType.CLIENT)
@@ -92,7 +114,10 @@ public class ModPacketsS2C {
 
     @Environment(EnvType.CLIENT)
     private static void resetOriginsInstallationStatus(ClientConfigurationNetworkHandler handler, MinecraftClient client) {
-        client.submit(() -> OriginsClient.isServerRunningOrigins = false);
+        client.submit(() -> {
+            OriginsClient.isServerRunningOrigins = false;
+            OriginsClient.originOptions = OriginOptions.EMPTY;
+        });
     }
 
 }
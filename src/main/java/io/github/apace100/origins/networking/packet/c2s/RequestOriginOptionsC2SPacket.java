@@ -0,0 +1,24 @@
+package io.github.apace100.origins.networking.packet.c2s;
+
+import io.github.apace100.origins.Origins;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+
+public class RequestOriginOptionsC2SPacket implements CustomPayload {
+
+    public static final RequestOriginOptionsC2SPacket INSTANCE = new RequestOriginOptionsC2SPacket();
+
+    public static final Id<RequestOriginOptionsC2SPacket> PACKET_ID = new Id<>(Origins.identifier("c2s/request_origin_options"));
+    public static final PacketCodec<ByteBuf, RequestOriginOptionsC2SPacket> PACKET_CODEC = PacketCodec.unit(INSTANCE);
+
+    private RequestOriginOptionsC2SPacket() {
+
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return PACKET_ID;
+    }
+
+}
@@ -1,17 +1,23 @@
 package io.github.apace100.origins.networking.packet.s2c;
 
 import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.origin.OriginOptions;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.CustomPayload;
 import net.minecraft.util.Identifier;
 
-public record ConfirmOriginS2CPacket(Identifier layerId, Identifier originId) implements CustomPayload {
+/**
+ *  @param options  the origins the player can choose from after the origin was set, since the choice may change which
+ *                  conditions of the other layers the player fulfills
+ */
+public record ConfirmOriginS2CPacket(Identifier layerId, Identifier originId, OriginOptions options) implements CustomPayload {
 
     public static final Id<ConfirmOriginS2CPacket> PACKET_ID = new Id<>(Origins.identifier("s2c/confirm_origin"));
     public static final PacketCodec<PacketByteBuf, ConfirmOriginS2CPacket> PACKET_CODEC = PacketCodec.tuple(
         Identifier.PACKET_CODEC, ConfirmOriginS2CPacket::layerId,
         Identifier.PACKET_CODEC, ConfirmOriginS2CPacket::originId,
+        OriginOptions.PACKET_CODEC, ConfirmOriginS2CPacket::options,
         ConfirmOriginS2CPacket::new
     );
 
@@ -1,15 +1,20 @@
 package io.github.apace100.origins.networking.packet.s2c;
 
 import io.github.apace100.origins.Origins;
-import io.netty.buffer.ByteBuf;
+import io.github.apace100.origins.origin.OriginOptions;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.codec.PacketCodecs;
 import net.minecraft.network.packet.CustomPayload;
 
-public record OpenChooseOriginScreenS2CPacket(boolean showBackground) implements CustomPayload {
+public record OpenChooseOriginScreenS2CPacket(boolean showBackground, OriginOptions options) implements CustomPayload {
 
     public static final Id<OpenChooseOriginScreenS2CPacket> PACKET_ID = new Id<>(Origins.identifier("s2c/open_origin_screen"));
-    public static final PacketCodec<ByteBuf, OpenChooseOriginScreenS2CPacket> PACKET_CODEC = PacketCodecs.BOOL.xmap(OpenChooseOriginScreenS2CPacket::new, OpenChooseOriginScreenS2CPacket::showBackground);
+    public static final PacketCodec<PacketByteBuf, OpenChooseOriginScreenS2CPacket> PACKET_CODEC = PacketCodec.tuple(
+        PacketCodecs.BOOL, OpenChooseOriginScreenS2CPacket::showBackground,
+        OriginOptions.PACKET_CODEC, OpenChooseOriginScreenS2CPacket::options,
+        OpenChooseOriginScreenS2CPacket::new
+    );
 
     @Override
     public Id<? extends CustomPayload> getId() {
@@ -0,0 +1,19 @@
+package io.github.apace100.origins.networking.packet.s2c;
+
+import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.origin.OriginOptions;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+
+public record SyncOriginOptionsS2CPacket(OriginOptions options) implements CustomPayload {
+
+    public static final Id<SyncOriginOptionsS2CPacket> PACKET_ID = new Id<>(Origins.identifier("s2c/sync_origin_options"));
+    public static final PacketCodec<PacketByteBuf, SyncOriginOptionsS2CPacket> PACKET_CODEC = OriginOptions.PACKET_CODEC.xmap(SyncOriginOptionsS2CPacket::new, SyncOriginOptionsS2CPacket::options);
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return PACKET_ID;
+    }
+
+}
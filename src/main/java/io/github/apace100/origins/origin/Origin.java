@@ -1,6 +1,7 @@
 package io.github.apace100.origins.origin;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.github.apace100.apoli.data.ApoliDataTypes;
 import io.github.apace100.apoli.power.MultiplePower;
 import io.github.apace100.apoli.power.Power;
@@ -14,7 +15,6 @@ import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.data.OriginsDataTypes;
 import io.github.apace100.origins.registry.ModComponents;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
-import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
 import net.minecraft.advancement.AdvancementEntry;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
@@ -68,8 +68,8 @@ public class Origin implements Validatable {
     private final Identifier id;
     private final ItemStack displayItem;
 
-    private final Set<PowerReference> powerReferences;
-    private final Set<Power> powers;
+    private final ImmutableSet<PowerReference> powerReferences;
+    private ImmutableSet<Power> powers;
 
     private final List<OriginUpgrade> upgrades;
     private final Impact impact;
@@ -88,8 +88,8 @@ public class Origin implements Validatable {
         String baseTranslationKey = Util.createTranslationKey("origin", id);
 
         this.displayItem = icon.copy();
-        this.powerReferences = new ObjectLinkedOpenHashSet<>(powerReferences);
-        this.powers = new ObjectLinkedOpenHashSet<>();
+        this.powerReferences = ImmutableSet.copyOf(powerReferences);
+        this.powers = ImmutableSet.of();
         this.upgrades = upgrades;
         this.impact = impact;
         this.name = TextUtil.forceTranslatable(baseTranslationKey + ".name", Optional.ofNullable(name));
@@ -116,12 +116,19 @@ public class Origin implements Validatable {
         return displayItem;
     }
 
+    /**
+     *  @return a shared view of the power references of this origin, in order
+     */
     public ImmutableList<PowerReference> getPowerReferences() {
-        return ImmutableList.copyOf(powerReferences);
+        return powerReferences.asList();
     }
 
+    /**
+     *  @return a shared view of the powers of this origin, in order, which are resolved from the power references once the
+     *  origin is {@linkplain #validate() validated}
+     */
     public ImmutableList<Power> getPowers() {
-        return ImmutableList.copyOf(powers);
+        return powers.asList();
     }
 
     @Deprecated(forRemoval = true)
@@ -163,7 +170,7 @@ public class Origin implements Validatable {
     @Override
     public void validate() {
 
-        this.powers.clear();
+        ImmutableSet.Builder<Power> powers = ImmutableSet.builderWithExpectedSize(powerReferences.size());
         for (PowerReference powerReference : powerReferences) {
 
             try {
@@ -176,6 +183,8 @@ public class Origin implements Validatable {
 
         }
 
+        this.powers = powers.build();
+
     }
 
     public boolean hasPower(Power targetPower) {
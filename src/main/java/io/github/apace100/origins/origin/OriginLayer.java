@@ -1,6 +1,7 @@
 package io.github.apace100.origins.origin;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.github.apace100.apoli.condition.factory.ConditionTypeFactory;
 import io.github.apace100.apoli.data.ApoliDataTypes;
 import io.github.apace100.apoli.util.TextUtil;
@@ -10,7 +11,8 @@ import io.github.apace100.calio.data.SerializableDataType;
 import io.github.apace100.calio.data.SerializableDataTypes;
 import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.data.OriginsDataTypes;
-import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import io.github.apace100.origins.util.AliasTable;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.text.Text;
@@ -19,6 +21,7 @@ import net.minecraft.util.Util;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
@@ -85,7 +88,7 @@ public class OriginLayer implements Comparable<OriginLayer> {
     private final Identifier id;
     private final int order;
 
-    private final Set<ConditionedOrigin> origins;
+    private final ImmutableSet<ConditionedOrigin> origins;
     private final boolean replaceOrigins;
 
     private final boolean replace;
@@ -102,7 +105,7 @@ public class OriginLayer implements Comparable<OriginLayer> {
     private final boolean randomAllowed;
     private final boolean unchoosableRandomAllowed;
 
-    private final Set<Identifier> originsExcludedFromRandom;
+    private final ImmutableSet<Identifier> originsExcludedFromRandom;
     private final boolean replaceOriginsExcludedFromRandom;
 
     @Nullable
@@ -111,13 +114,20 @@ public class OriginLayer implements Comparable<OriginLayer> {
 
     private final boolean hidden;
 
+    /**
+     *  The entries of {@link #origins} that have a condition, in order. The fulfilled ones form the bits of the mask that
+     *  the {@linkplain #randomOriginTables random origin tables} are keyed by.
+     */
+    private final ConditionedOrigin[] conditionalOrigins;
+    private final Long2ObjectOpenHashMap<AliasTable<Identifier>> randomOriginTables = new Long2ObjectOpenHashMap<>();
+
     protected OriginLayer(Identifier id, int order, Collection<ConditionedOrigin> origins, boolean replaceOrigins, boolean replace, boolean enabled, @Nullable Text name, GuiTitle guiTitle, @Nullable Text missingName, @Nullable Text missingDescription, boolean randomAllowed, boolean unchoosableRandomAllowed, Collection<Identifier> originsExcludedFromRandom, boolean replaceOriginsExcludedFromRandom, @Nullable Identifier defaultOrigin, boolean autoChoose, boolean hidden) {
 
         this.id = id;
         String baseTranslationKey = Util.createTranslationKey("layer", id);
 
         this.order = order;
-        this.origins = new ObjectLinkedOpenHashSet<>(origins);
+        this.origins = ImmutableSet.copyOf(origins);
         this.replaceOrigins = replaceOrigins;
         this.replace = replace;
         this.enabled = enabled;
@@ -146,24 +156,35 @@ public class OriginLayer implements Comparable<OriginLayer> {
         this.missingDescription = missingDescription;
         this.randomAllowed = randomAllowed;
         this.unchoosableRandomAllowed = unchoosableRandomAllowed;
-        this.originsExcludedFromRandom = new ObjectLinkedOpenHashSet<>(originsExcludedFromRandom);
+        this.originsExcludedFromRandom = ImmutableSet.copyOf(originsExcludedFromRandom);
         this.replaceOriginsExcludedFromRandom = replaceOriginsExcludedFromRandom;
         this.defaultOrigin = defaultOrigin;
         this.autoChoose = autoChoose;
         this.hidden = hidden;
 
+        this.conditionalOrigins = this.origins
+            .stream()
+            .filter(co -> co.condition() != null)
+            .toArray(ConditionedOrigin[]::new);
+
     }
 
     public int getOrder() {
         return order;
     }
 
+    /**
+     *  @return a shared view of the entries of origins of this layer, in order
+     */
     public ImmutableList<ConditionedOrigin> getConditionedOrigins() {
-        return ImmutableList.copyOf(origins);
+        return origins.asList();
     }
 
+    /**
+     *  @return a shared view of the IDs of the origins that can't be picked at random, in order
+     */
     public ImmutableList<Identifier> getOriginsExcludedFromRandom() {
-        return ImmutableList.copyOf(originsExcludedFromRandom);
+        return originsExcludedFromRandom.asList();
     }
 
     public GuiTitle getGuiTitle() {
@@ -246,7 +267,7 @@ public class OriginLayer implements Comparable<OriginLayer> {
             .filter(Origin::isChoosable)
             .count();
 
-        if (choosableOrigins > 1 && (randomAllowed && !getRandomOrigins(playerEntity).isEmpty())) {
+        if (choosableOrigins > 1 && (randomAllowed && hasRandomOrigins(playerEntity))) {
             choosableOrigins++;
         }
 
@@ -294,12 +315,108 @@ public class OriginLayer implements Comparable<OriginLayer> {
             .stream()
             .filter(co -> co.isConditionFulfilled(playerEntity))
             .flatMap(co -> co.origins.stream())
-            .filter(OriginManager::contains)
-            .filter(oId -> !originsExcludedFromRandom.contains(oId))
-            .filter(oid -> unchoosableRandomAllowed || OriginManager.get(oid).isChoosable())
+            .filter(this::isRandomCandidate)
             .collect(Collectors.toList());
     }
 
+    /**
+     *  @return whether there is any origin that {@link #getRandomOrigin(PlayerEntity)} can pick for the player
+     */
+    public boolean hasRandomOrigins(PlayerEntity playerEntity) {
+        return !getRandomOriginTable(playerEntity).isEmpty();
+    }
+
+    /**
+     *  Picks a random origin for the player out of {@link #getRandomOrigins(PlayerEntity)}, weighted by the {@code
+     *  random_weight} of the entries that the origins are listed in, using the random number generator of the player.
+     *
+     *  @return the ID of the picked origin, or {@code null} if there is none to pick from
+     */
+    @Nullable
+    public Identifier getRandomOrigin(PlayerEntity playerEntity) {
+        return getRandomOriginTable(playerEntity).sample(playerEntity.getRandom());
+    }
+
+    /**
+     *  Returns the table for sampling random origins for the player. Which entries apply only depends on which conditions
+     *  the player fulfills, so the tables are built once per combination of fulfilled conditions and reused.
+     */
+    private AliasTable<Identifier> getRandomOriginTable(PlayerEntity playerEntity) {
+
+        //  Masks can't represent more than 64 conditional entries, so build the table every time in that case
+        if (conditionalOrigins.length > Long.SIZE) {
+
+            boolean[] fulfilled = new boolean[conditionalOrigins.length];
+            for (int i = 0; i < conditionalOrigins.length; i++) {
+                fulfilled[i] = conditionalOrigins[i].isConditionFulfilled(playerEntity);
+            }
+
+            return buildRandomOriginTable(i -> fulfilled[i]);
+
+        }
+
+        long mask = 0;
+        for (int i = 0; i < conditionalOrigins.length; i++) {
+            if (conditionalOrigins[i].isConditionFulfilled(playerEntity)) {
+                mask |= 1L << i;
+            }
+        }
+
+        synchronized (randomOriginTables) {
+
+            long fulfilledMask = mask;
+            AliasTable<Identifier> table = randomOriginTables.get(fulfilledMask);
+
+            if (table == null) {
+                table = buildRandomOriginTable(i -> (fulfilledMask & (1L << i)) != 0);
+                randomOriginTables.put(fulfilledMask, table);
+            }
+
+            return table;
+
+        }
+
+    }
+
+    /**
+     *  Builds the table out of the unconditional entries and the conditional entries whose condition is fulfilled, without
+     *  evaluating any condition again.
+     *
+     *  @param fulfilled    whether the condition of the conditional entry at the index in {@link #conditionalOrigins} is
+     *                      fulfilled
+     */
+    private AliasTable<Identifier> buildRandomOriginTable(IntPredicate fulfilled) {
+
+        List<Identifier> originIds = new ArrayList<>();
+        List<Float> weights = new ArrayList<>();
+
+        int conditionalIndex = 0;
+        for (ConditionedOrigin conditionedOrigin : origins) {
+
+            //  Conditional entries are listed in the same order as in the entries of the layer
+            if (conditionedOrigin.condition() != null && !fulfilled.test(conditionalIndex++)) {
+                continue;
+            }
+
+            for (Identifier originId : conditionedOrigin.origins()) {
+                if (isRandomCandidate(originId)) {
+                    originIds.add(originId);
+                    weights.add(conditionedOrigin.randomWeight());
+                }
+            }
+
+        }
+
+        return AliasTable.of(originIds, weights);
+
+    }
+
+    private boolean isRandomCandidate(Identifier originId) {
+        return OriginManager.contains(originId)
+            && !originsExcludedFromRandom.contains(originId)
+            && (unchoosableRandomAllowed || OriginManager.get(originId).isChoosable());
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.getId());
@@ -354,21 +471,34 @@ public class OriginLayer implements Comparable<OriginLayer> {
 
     }
 
-    public record ConditionedOrigin(@Nullable ConditionTypeFactory<Entity>.Instance condition, List<Identifier> origins) {
+    /**
+     *  @param randomWeight the relative chance of the origins of this entry being picked at random; entries with a weight
+     *                      that is not positive are never picked at random
+     */
+    public record ConditionedOrigin(@Nullable ConditionTypeFactory<Entity>.Instance condition, List<Identifier> origins, float randomWeight) {
+
+        public static final float DEFAULT_RANDOM_WEIGHT = 1.0F;
 
         public static final CompoundSerializableDataType<ConditionedOrigin> DATA_TYPE = SerializableDataType.compound(
             new SerializableData()
                 .add("condition", ApoliDataTypes.ENTITY_CONDITION, null)
-                .add("origins", SerializableDataTypes.IDENTIFIERS),
+                .add("origins", SerializableDataTypes.IDENTIFIERS)
+                .add("random_weight", SerializableDataTypes.FLOAT, DEFAULT_RANDOM_WEIGHT),
             data -> new ConditionedOrigin(
                 data.get("condition"),
-                data.get("origins")
+                data.get("origins"),
+                data.get("random_weight")
             ),
             (conditionedOrigin, serializableData) -> serializableData.instance()
                 .set("condition", conditionedOrigin.condition())
                 .set("origins", conditionedOrigin.origins())
+                .set("random_weight", conditionedOrigin.randomWeight())
         );
 
+        public ConditionedOrigin(@Nullable ConditionTypeFactory<Entity>.Instance condition, List<Identifier> origins) {
+            this(condition, origins, DEFAULT_RANDOM_WEIGHT);
+        }
+
         public boolean isConditionFulfilled(PlayerEntity playerEntity) {
             return condition == null || condition.test(playerEntity);
         }
@@ -10,11 +10,14 @@ import io.github.apace100.calio.data.MultiJsonDataContainer;
 import io.github.apace100.calio.data.SerializableData;
 import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.component.OriginComponent;
+import io.github.apace100.origins.component.OriginTransaction;
 import io.github.apace100.origins.integration.CarpetIntegration;
 import io.github.apace100.origins.integration.OriginDataLoadedCallback;
+import io.github.apace100.origins.networking.ClientRegistrySync;
 import io.github.apace100.origins.networking.packet.s2c.OpenChooseOriginScreenS2CPacket;
 import io.github.apace100.origins.networking.packet.s2c.SyncOriginLayersS2CPacket;
 import io.github.apace100.origins.registry.ModComponents;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
@@ -47,7 +50,10 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
     public static final Set<Identifier> DEPENDENCIES = Util.make(new ObjectOpenHashSet<>(), set -> set.add(OriginManager.ID));
     public static final Identifier ID = Origins.identifier("origin_layers");
 
-    private static final Object2ObjectOpenHashMap<Identifier, OriginLayer> LAYERS_BY_ID = new Object2ObjectOpenHashMap<>();
+    private static Object2ObjectOpenHashMap<Identifier, OriginLayer> layersById = new Object2ObjectOpenHashMap<>();
+    private static Object2IntOpenHashMap<Identifier> layerIndices = createIndices(Map.of());
+
+    private static int version = 0;
 
     private static final Map<Identifier, Integer> LOADING_PRIORITIES = new HashMap<>();
     private static final Gson GSON = new GsonBuilder()
@@ -61,10 +67,14 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
         ServerLifecycleEvents.SYNC_DATA_PACK_CONTENTS.register(ID, (player, joined) -> {
 
             OriginComponent component = ModComponents.ORIGIN.get(player);
+            OriginTransaction transaction = component.transaction();
+
             values().stream()
                 .filter(OriginLayer::isEnabled)
                 .filter(Predicate.not(component::hasOrigin))
-                .forEach(layer -> component.setOrigin(layer, Origin.EMPTY));
+                .forEach(layer -> transaction.set(layer, Origin.EMPTY));
+
+            transaction.commit();
 
             send(player);
             updateData(player, joined);
@@ -76,6 +86,7 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
 
         RegistryOps<JsonElement> jsonOps = player.getRegistryManager().getOps(JsonOps.INSTANCE);
         OriginComponent component = ModComponents.ORIGIN.get(player);
+        OriginTransaction transaction = component.transaction();
 
         int mismatches = 0;
 
@@ -91,12 +102,12 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
 
                 if (newLayer == null) {
                     Origins.LOGGER.error("Removed unregistered origin layer \"{}\" from player {}!", oldLayer.getId(), player.getName().getString());
-                    component.removeLayer(oldLayer);
+                    transaction.remove(oldLayer);
                 }
 
                 else if (!newLayer.contains(oldOrigin) || newOrigin == null) {
                     Origins.LOGGER.error("Removed unregistered origin \"{}\" from origin layer \"{}\" from player {}!", oldOrigin.getId(), oldLayer.getId(), player.getName().getString());
-                    component.setOrigin(newLayer, Origin.EMPTY);
+                    transaction.set(newLayer, Origin.EMPTY);
                 }
 
                 else {
@@ -111,7 +122,7 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
                     Origins.LOGGER.warn("Origin \"{}\" from player {} has mismatched data fields! Updating...", oldOrigin.getId(), player.getName().getString());
                     mismatches++;
 
-                    component.setOrigin(newLayer, newOrigin);
+                    transaction.set(newLayer, newOrigin);
 
                 }
 
@@ -119,6 +130,8 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
 
         }
 
+        transaction.commit();
+
         if (mismatches > 0) {
             Origins.LOGGER.info("Finished updating {} origins with mismatched data fields from player {}!", mismatches, player.getName().getString());
         }
@@ -134,12 +147,12 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
             if (init) {
 
                 if (component.hasAllOrigins()) {
-                    OriginComponent.onChosen(player, false);
+                    OriginComponent.onChosen(player, false, false);
                 }
 
                 else if (!CarpetIntegration.isPlayerFake(player)) {
                     component.selectingOrigin(true);
-                    ServerPlayNetworking.send(player, new OpenChooseOriginScreenS2CPacket(true));
+                    ServerPlayNetworking.send(player, new OpenChooseOriginScreenS2CPacket(true, OriginOptions.of(player)));
                 }
 
             }
@@ -245,7 +258,7 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
 
             }
 
-            LAYERS_BY_ID.put(id, currentLayer.get());
+            layersById.put(id, currentLayer.get());
 
         });
 
@@ -313,8 +326,8 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
     }
 
     public static DataResult<OriginLayer> getResult(Identifier id) {
-        return LAYERS_BY_ID.containsKey(id)
-            ? DataResult.success(LAYERS_BY_ID.get(id))
+        return layersById.containsKey(id)
+            ? DataResult.success(layersById.get(id))
             : DataResult.error(() -> "Could not get layer from id '" + id.toString() + "', as it doesn't exist!");
     }
 
@@ -324,7 +337,7 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
 
     @Nullable
     public static OriginLayer getNullable(Identifier id) {
-        return LAYERS_BY_ID.get(id);
+        return layersById.get(id);
     }
 
     public static OriginLayer get(Identifier id) {
@@ -332,15 +345,15 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
     }
 
     public static Set<Map.Entry<Identifier, OriginLayer>> entrySet() {
-        return new ObjectOpenHashSet<>(LAYERS_BY_ID.entrySet());
+        return new ObjectOpenHashSet<>(layersById.entrySet());
     }
 
     public static Set<Identifier> keySet() {
-        return new ObjectOpenHashSet<>(LAYERS_BY_ID.keySet());
+        return new ObjectOpenHashSet<>(layersById.keySet());
     }
 
     public static Collection<OriginLayer> values() {
-        return new ObjectOpenHashSet<>(LAYERS_BY_ID.values());
+        return new ObjectOpenHashSet<>(layersById.values());
     }
 
     public static boolean contains(OriginLayer layer) {
@@ -348,7 +361,7 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
     }
 
     public static boolean contains(Identifier id) {
-        return LAYERS_BY_ID.containsKey(id);
+        return layersById.containsKey(id);
     }
 
     public static int getOriginOptionCount(PlayerEntity playerEntity) {
@@ -364,23 +377,61 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
     }
 
     public static int size() {
-        return LAYERS_BY_ID.size();
+        return layersById.size();
+    }
+
+    /**
+     *  @return the index of the specified layer, which is stable until the layers are reloaded, or {@code -1} if the
+     *  layer is not registered
+     */
+    public static int getIndex(Identifier id) {
+        return layerIndices.getInt(id);
+    }
+
+    /**
+     *  @return a number that changes every time the layers (and thus their {@linkplain #getIndex(Identifier) indices})
+     *  are reloaded
+     */
+    public static int getVersion() {
+        return version;
     }
 
     private static void startBuilding() {
         LOADING_PRIORITIES.clear();
-        LAYERS_BY_ID.clear();
+        layersById.clear();
     }
 
     private static void endBuilding() {
+
         LOADING_PRIORITIES.clear();
-        LAYERS_BY_ID.trim();
+        layersById.trim();
+
+        layerIndices = createIndices(layersById);
+        version++;
+
+    }
+
+    private static Object2IntOpenHashMap<Identifier> createIndices(Map<Identifier, OriginLayer> layers) {
+
+        Object2IntOpenHashMap<Identifier> indices = new Object2IntOpenHashMap<>(layers.size());
+        indices.defaultReturnValue(-1);
+
+        //  Sort the IDs so that the same set of layers results in the same indices
+        List<Identifier> layerIds = new ArrayList<>(layers.keySet());
+        layerIds.sort(Comparator.naturalOrder());
+
+        for (int i = 0; i < layerIds.size(); i++) {
+            indices.put(layerIds.get(i), i);
+        }
+
+        return indices;
+
     }
 
     public static void send(ServerPlayerEntity player) {
 
         if (player.server.isDedicated()) {
-            ServerPlayNetworking.send(player, new SyncOriginLayersS2CPacket(LAYERS_BY_ID));
+            ServerPlayNetworking.send(player, new SyncOriginLayersS2CPacket(layersById));
         }
 
     }
@@ -388,11 +439,24 @@ public class OriginLayerManager extends IdentifiableMultiJsonDataLoader implemen
     @Environment(EnvType.CLIENT)
     public static void receive(SyncOriginLayersS2CPacket packet, ClientPlayNetworking.Context context) {
 
-        startBuilding();
-        LAYERS_BY_ID.putAll(packet.layersById());
+        ClientRegistrySync.enqueue("origin layers", () -> {
 
-        endBuilding();
-        OriginDataLoadedCallback.EVENT.invoker().onDataLoaded(true);
+            Object2ObjectOpenHashMap<Identifier, OriginLayer> receivedLayers = new Object2ObjectOpenHashMap<>(packet.layersById());
+            return new ReceivedLayers(receivedLayers, createIndices(receivedLayers));
+
+        }, receivedLayers -> {
+
+            layersById = receivedLayers.layersById();
+            layerIndices = receivedLayers.layerIndices();
+
+            version++;
+            OriginDataLoadedCallback.EVENT.invoker().onDataLoaded(true);
+
+        });
+
+    }
+
+    private record ReceivedLayers(Object2ObjectOpenHashMap<Identifier, OriginLayer> layersById, Object2IntOpenHashMap<Identifier> layerIndices) {
 
     }
 
@@ -12,6 +12,7 @@ import io.github.apace100.calio.data.IdentifiableMultiJsonDataLoader;
 import io.github.apace100.calio.data.MultiJsonDataContainer;
 import io.github.apace100.calio.data.SerializableData;
 import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.networking.ClientRegistrySync;
 import io.github.apace100.origins.networking.packet.s2c.SyncOriginsS2CPacket;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
@@ -39,10 +40,12 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 	public static final Set<Identifier> DEPENDENCIES = Util.make(new HashSet<>(), set -> set.add(PowerManager.ID));
 	public static final Identifier ID = Origins.identifier("origins");
 
-	private static final Object2ObjectOpenHashMap<Identifier, Origin> ORIGINS_BY_ID = new Object2ObjectOpenHashMap<>();
+	private static Object2ObjectOpenHashMap<Identifier, Origin> originsById = new Object2ObjectOpenHashMap<>();
 	private static final ObjectOpenHashSet<Identifier> DISABLED_ORIGINS = new ObjectOpenHashSet<>();
 
 	private static final Object2ObjectOpenHashMap<Identifier, Integer> LOADING_PRIORITIES = new Object2ObjectOpenHashMap<>();
+
+	private static int version;
 	private static final Gson GSON = new GsonBuilder()
 		.disableHtmlEscaping()
 		.setPrettyPrinting()
@@ -155,20 +158,20 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 	}
 
 	public static Set<Map.Entry<Identifier, Origin>> entrySet() {
-		return new ObjectOpenHashSet<>(ORIGINS_BY_ID.object2ObjectEntrySet());
+		return new ObjectOpenHashSet<>(originsById.object2ObjectEntrySet());
 	}
 
 	public static Set<Identifier> keySet() {
-		return new ObjectOpenHashSet<>(ORIGINS_BY_ID.keySet());
+		return new ObjectOpenHashSet<>(originsById.keySet());
 	}
 
 	public static Collection<Origin> values() {
-		return new ObjectOpenHashSet<>(ORIGINS_BY_ID.values());
+		return new ObjectOpenHashSet<>(originsById.values());
 	}
 
 	public static DataResult<Origin> getResult(Identifier id) {
 		return contains(id)
-			? DataResult.success(ORIGINS_BY_ID.get(id))
+			? DataResult.success(originsById.get(id))
 			: DataResult.error(() -> "Could not get origin from ID \"" + id + "\", as it was not registered!");
 	}
 
@@ -178,7 +181,7 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 
 	@Nullable
 	public static Origin getNullable(Identifier id) {
-		return ORIGINS_BY_ID.get(id);
+		return originsById.get(id);
 	}
 
 	public static Origin get(Identifier id) {
@@ -190,18 +193,25 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 	}
 
 	public static boolean contains(Identifier id) {
-		return ORIGINS_BY_ID.containsKey(id);
+		return originsById.containsKey(id);
 	}
 
 	public static int size() {
-		return ORIGINS_BY_ID.size();
+		return originsById.size();
+	}
+
+	/**
+	 *	@return a number that changes whenever the origins are (re)loaded or received
+	 */
+	public static int getVersion() {
+		return version;
 	}
 
 	private static void startBuilding() {
 
 		LOADING_PRIORITIES.clear();
 
-		ORIGINS_BY_ID.clear();
+		originsById.clear();
 		DISABLED_ORIGINS.clear();
 
 	}
@@ -209,11 +219,13 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 	private static void endBuilding() {
 
 		LOADING_PRIORITIES.clear();
-		ORIGINS_BY_ID.put(Origin.EMPTY.getId(), Origin.EMPTY);
+		originsById.put(Origin.EMPTY.getId(), Origin.EMPTY);
 
-		ORIGINS_BY_ID.trim();
+		originsById.trim();
 		DISABLED_ORIGINS.trim();
 
+		version++;
+
 	}
 
 	private static Origin register(Identifier id, Origin origin) {
@@ -225,7 +237,7 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 		else {
 
 			DISABLED_ORIGINS.remove(id);
-			ORIGINS_BY_ID.put(id, origin);
+			originsById.put(id, origin);
 
 			return origin;
 
@@ -234,7 +246,7 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 	}
 
 	private static Origin remove(Identifier id) {
-		return ORIGINS_BY_ID.remove(id);
+		return originsById.remove(id);
 	}
 
 	private static Origin update(Identifier id, Origin origin) {
@@ -254,7 +266,7 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 	public static void send(ServerPlayerEntity player) {
 
 		if (player.server.isDedicated()) {
-			ServerPlayNetworking.send(player, new SyncOriginsS2CPacket(ORIGINS_BY_ID));
+			ServerPlayNetworking.send(player, new SyncOriginsS2CPacket(originsById));
 		}
 
 	}
@@ -262,14 +274,25 @@ public class OriginManager extends IdentifiableMultiJsonDataLoader implements Id
 	@Environment(EnvType.CLIENT)
 	public static void receive(SyncOriginsS2CPacket packet, ClientPlayNetworking.Context context) {
 
-		startBuilding();
+		ClientRegistrySync.enqueue("origins", () -> {
 
-		packet.originsById().entrySet()
-			.stream()
-			.peek(e -> e.getValue().validate())
-			.forEach(e -> ORIGINS_BY_ID.put(e.getKey(), e.getValue()));
+			Object2ObjectOpenHashMap<Identifier, Origin> receivedOrigins = new Object2ObjectOpenHashMap<>(packet.originsById());
+			receivedOrigins.values().forEach(Origin::validate);
 
-		endBuilding();
+			receivedOrigins.put(Origin.EMPTY.getId(), Origin.EMPTY);
+			receivedOrigins.trim();
+
+			return receivedOrigins;
+
+		}, receivedOrigins -> {
+
+			originsById = receivedOrigins;
+			DISABLED_ORIGINS.clear();
+
+			version++;
+			OriginSearchIndex.rebuild();
+
+		});
 
 	}
 
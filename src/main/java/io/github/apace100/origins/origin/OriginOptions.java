@@ -0,0 +1,104 @@
+package io.github.apace100.origins.origin;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  A snapshot of the origins a player can choose from in each enabled layer, computed by the server. The layer conditions
+ *  of origins are entity conditions that the client can't reliably evaluate, so the screens for choosing and viewing
+ *  origins rely on this snapshot instead.
+ *
+ *  @param layers   the options of the layers by the IDs of the layers
+ */
+public record OriginOptions(Map<Identifier, LayerOptions> layers) {
+
+    public static final OriginOptions EMPTY = new OriginOptions(Map.of());
+    public static final PacketCodec<PacketByteBuf, OriginOptions> PACKET_CODEC = PacketCodec.of(OriginOptions::write, OriginOptions::read);
+
+    public static OriginOptions of(PlayerEntity player) {
+
+        Map<Identifier, LayerOptions> layers = new HashMap<>();
+        for (OriginLayer layer : OriginLayerManager.values()) {
+
+            if (layer.isEnabled()) {
+                layers.put(layer.getId(), new LayerOptions(layer.getOrigins(player), layer.getRandomOrigins(player), layer.getOriginOptionCount(player)));
+            }
+
+        }
+
+        return new OriginOptions(layers);
+
+    }
+
+    /**
+     *  @return the options of the specified layer, or {@link LayerOptions#EMPTY} if the layer is not part of this snapshot
+     */
+    public LayerOptions get(OriginLayer layer) {
+        return layers.getOrDefault(layer.getId(), LayerOptions.EMPTY);
+    }
+
+    /**
+     *  Writes the IDs of the origins once, and refers to them by their index in the layers, since most origins are part of
+     *  more than one list.
+     */
+    private void write(PacketByteBuf buf) {
+
+        Object2IntOpenHashMap<Identifier> originIndices = new Object2IntOpenHashMap<>();
+        List<Identifier> originIds = new ArrayList<>();
+
+        for (LayerOptions layerOptions : layers.values()) {
+            for (List<Identifier> ids : List.of(layerOptions.origins(), layerOptions.randomOrigins())) {
+                for (Identifier id : ids) {
+
+                    if (!originIndices.containsKey(id)) {
+                        originIndices.put(id, originIds.size());
+                        originIds.add(id);
+                    }
+
+                }
+            }
+        }
+
+        buf.writeCollection(originIds, PacketByteBuf::writeIdentifier);
+        buf.writeMap(layers, PacketByteBuf::writeIdentifier, (layerBuf, layerOptions) -> {
+            layerBuf.writeCollection(layerOptions.origins(), (originBuf, id) -> originBuf.writeVarInt(originIndices.getInt(id)));
+            layerBuf.writeCollection(layerOptions.randomOrigins(), (originBuf, id) -> originBuf.writeVarInt(originIndices.getInt(id)));
+            layerBuf.writeVarInt(layerOptions.optionCount());
+        });
+
+    }
+
+    private static OriginOptions read(PacketByteBuf buf) {
+
+        List<Identifier> originIds = buf.readList(PacketByteBuf::readIdentifier);
+        Map<Identifier, LayerOptions> layers = buf.readMap(PacketByteBuf::readIdentifier, layerBuf -> new LayerOptions(
+            layerBuf.readList(originBuf -> originIds.get(originBuf.readVarInt())),
+            layerBuf.readList(originBuf -> originIds.get(originBuf.readVarInt())),
+            layerBuf.readVarInt()
+        ));
+
+        return new OriginOptions(layers);
+
+    }
+
+    /**
+     *  @param origins          the IDs of the origins of the layer whose conditions the player fulfills
+     *  @param randomOrigins    the IDs of the origins that could be picked if the player chose a random origin
+     *  @param optionCount      the number of options to choose from, including the random origin if the player can choose
+     *                          it (see {@link OriginLayer#getOriginOptionCount(PlayerEntity)})
+     */
+    public record LayerOptions(List<Identifier> origins, List<Identifier> randomOrigins, int optionCount) {
+
+        public static final LayerOptions EMPTY = new LayerOptions(List.of(), List.of(), 0);
+
+    }
+
+}
@@ -0,0 +1,189 @@
+package io.github.apace100.origins.origin;
+
+import io.github.apace100.apoli.power.Power;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ *  A prefix search index over the names, power names and impact of the choosable origins on the client. An origin matches
+ *  a query if every word of the query is the prefix of a word of the name, a power name or the impact of the origin.
+ *
+ *  <p>The index is built on a worker thread once origins are received, and again once the language changes.</p>
+ */
+@Environment(EnvType.CLIENT)
+public final class OriginSearchIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final OriginSearchIndex EMPTY = new OriginSearchIndex(new Identifier[0], new String[0], new BitSet[0]);
+
+    private static CompletableFuture<OriginSearchIndex> current = CompletableFuture.completedFuture(EMPTY);
+
+    private static int builtVersion = -1;
+    private static String builtLanguage = "";
+
+    private final Identifier[] originIds;
+
+    private final String[] words;
+    private final BitSet[] originsByWord;
+
+    private OriginSearchIndex(Identifier[] originIds, String[] words, BitSet[] originsByWord) {
+        this.originIds = originIds;
+        this.words = words;
+        this.originsByWord = originsByWord;
+    }
+
+    /**
+     *  Starts building the index for the current origins and language in the background. Must be called on the client
+     *  thread.
+     */
+    public static CompletableFuture<OriginSearchIndex> rebuild() {
+
+        builtVersion = OriginManager.getVersion();
+        builtLanguage = getLanguage();
+
+        List<Origin> origins = OriginManager.values()
+            .stream()
+            .filter(origin -> origin != Origin.EMPTY && origin.isChoosable())
+            .toList();
+
+        current = CompletableFuture.supplyAsync(() -> build(origins), Util.getMainWorkerExecutor());
+        return current;
+
+    }
+
+    /**
+     *  @return the index of the current origins and language, which is rebuilt first if either changed since it was
+     *  last built
+     */
+    public static CompletableFuture<OriginSearchIndex> get() {
+
+        if (builtVersion != OriginManager.getVersion() || !builtLanguage.equals(getLanguage())) {
+            return rebuild();
+        }
+
+        return current;
+
+    }
+
+    /**
+     *  @return the IDs of the origins that match every word of the query; all origins if the query has no words
+     */
+    public Set<Identifier> search(String query) {
+
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return new HashSet<>(Arrays.asList(originIds));
+        }
+
+        BitSet matches = null;
+        for (String queryWord : queryWords) {
+
+            BitSet wordMatches = new BitSet(originIds.length);
+
+            int from = lowerBound(queryWord);
+            int to = lowerBound(queryWord + Character.MAX_VALUE);
+
+            for (int i = from; i < to; i++) {
+                wordMatches.or(originsByWord[i]);
+            }
+
+            if (matches == null) {
+                matches = wordMatches;
+            }
+
+            else {
+                matches.and(wordMatches);
+            }
+
+            if (matches.isEmpty()) {
+                break;
+            }
+
+        }
+
+        Set<Identifier> matchingIds = new HashSet<>();
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            matchingIds.add(originIds[i]);
+        }
+
+        return matchingIds;
+
+    }
+
+    public int size() {
+        return originIds.length;
+    }
+
+    private static OriginSearchIndex build(List<Origin> origins) {
+
+        TreeMap<String, BitSet> originsByWord = new TreeMap<>();
+        for (int originIndex = 0; originIndex < origins.size(); originIndex++) {
+
+            Origin origin = origins.get(originIndex);
+            List<String> texts = new ArrayList<>();
+
+            texts.add(origin.getName().getString());
+            texts.add(origin.getId().getPath());
+            texts.add(origin.getImpact().getTextComponent().getString());
+
+            for (Power power : origin.getPowers()) {
+                if (!power.isHidden()) {
+                    texts.add(power.getName().getString());
+                }
+            }
+
+            for (String text : texts) {
+                for (String word : tokenize(text)) {
+                    originsByWord.computeIfAbsent(word, k -> new BitSet(origins.size())).set(originIndex);
+                }
+            }
+
+        }
+
+        return new OriginSearchIndex(
+            origins.stream().map(Origin::getId).toArray(Identifier[]::new),
+            originsByWord.keySet().toArray(String[]::new),
+            originsByWord.values().toArray(BitSet[]::new)
+        );
+
+    }
+
+    private static List<String> tokenize(String text) {
+
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+
+        return words;
+
+    }
+
+    private int lowerBound(String word) {
+
+        int index = Arrays.binarySearch(words, word);
+        return index >= 0 ? index : -(index + 1);
+
+    }
+
+    private static String getLanguage() {
+        return MinecraftClient.getInstance().getLanguageManager().getLanguage();
+    }
+
+}
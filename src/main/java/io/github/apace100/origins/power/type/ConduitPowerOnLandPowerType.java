@@ -8,6 +8,12 @@ public class ConduitPowerOnLandPowerType extends PowerType {
 
     public ConduitPowerOnLandPowerType(Power power, LivingEntity entity) {
         super(power, entity);
+        PowerTypePresence.mark(entity, PowerTypePresence.CONDUIT_POWER_ON_LAND);
+    }
+
+    @Override
+    public void onRemoved() {
+        PowerTypePresence.unmark(entity, PowerTypePresence.CONDUIT_POWER_ON_LAND);
     }
 
 }
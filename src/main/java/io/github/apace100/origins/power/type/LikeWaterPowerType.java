@@ -11,10 +11,16 @@ public class LikeWaterPowerType extends PowerType {
 
     public LikeWaterPowerType(Power power, LivingEntity entity) {
         super(power, entity);
+        PowerTypePresence.mark(entity, PowerTypePresence.LIKE_WATER);
+    }
+
+    @Override
+    public void onRemoved() {
+        PowerTypePresence.unmark(entity, PowerTypePresence.LIKE_WATER);
     }
 
     public static Vec3d modifyFluidMovement(Entity entity, Vec3d velocity, double fallVelocity) {
-        return PowerHolderComponent.hasPowerType(entity, LikeWaterPowerType.class) && Math.abs(velocity.y - fallVelocity / 16.0D) < 0.025D
+        return PowerTypePresence.mayHave(entity, PowerTypePresence.LIKE_WATER) && Math.abs(velocity.y - fallVelocity / 16.0D) < 0.025D && PowerHolderComponent.hasPowerType(entity, LikeWaterPowerType.class)
             ? new Vec3d(velocity.x, 0, velocity.z)
             : velocity;
     }
@@ -0,0 +1,227 @@
+package io.github.apace100.origins.power.type;
+
+import io.github.apace100.apoli.power.type.ModifyPlayerSpawnPowerType;
+import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.util.Scheduler;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.Dismounting;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.random.Random;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *  Keeps a pool of safe spawn locations for every {@link ModifyPlayerSpawnPowerType modify player spawn} power and the
+ *  dimension it teleports players to, so that only the first player with a power has to wait for the spawn search of the
+ *  power. The location found by that search becomes the anchor of the pool, and the pool is filled with safe locations
+ *  around the anchor on low priority scheduler tasks, off the path of choosing an origin.
+ *
+ *  <p>Every player is handed a location of its own from the pool, which is checked to still be safe before it's used.
+ *  Only locations in loaded chunks are validated in the background, so that filling the pools never loads any chunks.</p>
+ */
+public class ModifiedSpawnCache {
+
+    private static final int POOL_SIZE = 8;
+    private static final int SPREAD_RADIUS = 8;
+    private static final int CANDIDATES_PER_REFILL = 4;
+
+    private static final int REFILL_INTERVAL_TICKS = 20;
+    private static final int REVALIDATION_INTERVAL_TICKS = 200;
+
+    private static final Map<SpawnKey, SpawnPool> POOLS = new HashMap<>();
+    private static final Map<Identifier, RegistryKey<World>> DIMENSIONS_BY_POWER = new HashMap<>();
+
+    public static void init() {
+
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            Origins.SCHEDULER.repeatWhile("origins:modified_spawn_refill", Scheduler.Priority.LOW, ModifiedSpawnCache::refill, null, REFILL_INTERVAL_TICKS, REFILL_INTERVAL_TICKS);
+            Origins.SCHEDULER.repeatWhile("origins:modified_spawn_revalidation", Scheduler.Priority.LOW, ModifiedSpawnCache::revalidate, null, REVALIDATION_INTERVAL_TICKS, REVALIDATION_INTERVAL_TICKS);
+        });
+
+        //  The spawn conditions of a power may have changed after a reload
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> clear());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> clear());
+
+    }
+
+    /**
+     *  Teleports the player to the modified spawn of the power type, using a location from the pool of the power if one is
+     *  still safe, and searching for the spawn (and anchoring the pool of the power at its location) otherwise.
+     */
+    public static void teleport(ModifyPlayerSpawnPowerType powerType, PlayerEntity player) {
+
+        if (!(player instanceof ServerPlayerEntity serverPlayer)) {
+            powerType.teleportToModifiedSpawn();
+            return;
+        }
+
+        Identifier powerId = powerType.getPower().getId();
+        RegistryKey<World> cachedDimension = DIMENSIONS_BY_POWER.get(powerId);
+
+        SpawnPool pool = cachedDimension != null ? POOLS.get(new SpawnKey(powerId, cachedDimension)) : null;
+        ServerWorld cachedWorld = cachedDimension != null ? serverPlayer.server.getWorld(cachedDimension) : null;
+
+        if (pool != null && cachedWorld != null) {
+
+            Vec3d safePos = pool.take(cachedWorld);
+            if (safePos != null) {
+                serverPlayer.teleport(cachedWorld, safePos.x, safePos.y, safePos.z, serverPlayer.getYaw(), serverPlayer.getPitch());
+                return;
+            }
+
+        }
+
+        RegistryKey<World> previousDimension = serverPlayer.getWorld().getRegistryKey();
+        BlockPos previousPos = serverPlayer.getBlockPos();
+
+        powerType.teleportToModifiedSpawn();
+
+        //  Only anchor a pool if the power actually found a spawn to teleport the player to
+        RegistryKey<World> dimension = serverPlayer.getWorld().getRegistryKey();
+        BlockPos pos = serverPlayer.getBlockPos();
+
+        if (dimension.equals(previousDimension) && pos.equals(previousPos)) {
+            return;
+        }
+
+        SpawnKey key = new SpawnKey(powerId, dimension);
+        if (cachedDimension != null && !cachedDimension.equals(dimension)) {
+            POOLS.remove(new SpawnKey(powerId, cachedDimension));
+        }
+
+        DIMENSIONS_BY_POWER.put(powerId, dimension);
+        POOLS.put(key, new SpawnPool(pos));
+
+        //  Warm the new pool up right away, rather than waiting for the next refill
+        Origins.SCHEDULER.queue("origins:modified_spawn_refill", Scheduler.Priority.LOW, server -> refill(server, key), 0);
+
+    }
+
+    /**
+     *  @return the number of spawn locations that are ready to be handed out, across all pools
+     */
+    public static int size() {
+        return POOLS.values()
+            .stream()
+            .mapToInt(pool -> pool.candidates.size())
+            .sum();
+    }
+
+    private static void clear() {
+        POOLS.clear();
+        DIMENSIONS_BY_POWER.clear();
+    }
+
+    private static void refill(MinecraftServer server) {
+        for (SpawnKey key : POOLS.keySet().toArray(SpawnKey[]::new)) {
+            refill(server, key);
+        }
+    }
+
+    /**
+     *  Adds up to {@link #CANDIDATES_PER_REFILL} safe locations around the anchor to the pool, if it's not full.
+     */
+    private static void refill(MinecraftServer server, SpawnKey key) {
+
+        SpawnPool pool = POOLS.get(key);
+        ServerWorld world = server.getWorld(key.dimension());
+
+        if (pool == null || world == null) {
+            return;
+        }
+
+        Random random = world.getRandom();
+        for (int i = 0; i < CANDIDATES_PER_REFILL && pool.candidates.size() < POOL_SIZE; i++) {
+
+            BlockPos candidate = pool.anchor.add(
+                random.nextBetween(-SPREAD_RADIUS, SPREAD_RADIUS),
+                random.nextBetween(-2, 2),
+                random.nextBetween(-SPREAD_RADIUS, SPREAD_RADIUS)
+            );
+
+            if (world.isChunkLoaded(candidate) && findSafePos(world, candidate) != null) {
+                pool.candidates.add(candidate.toImmutable());
+            }
+
+        }
+
+    }
+
+    /**
+     *  Drops the pooled locations that are no longer safe. Only locations in loaded chunks are checked, so that this
+     *  doesn't load any chunks.
+     */
+    private static void revalidate(MinecraftServer server) {
+        POOLS.forEach((key, pool) -> {
+
+            ServerWorld world = server.getWorld(key.dimension());
+            if (world == null) {
+                pool.candidates.clear();
+                return;
+            }
+
+            pool.candidates.removeIf(candidate -> world.isChunkLoaded(candidate) && findSafePos(world, candidate) == null);
+
+        });
+    }
+
+    @Nullable
+    private static Vec3d findSafePos(ServerWorld world, BlockPos pos) {
+
+        if (!world.getFluidState(pos).isEmpty() || !world.getFluidState(pos.up()).isEmpty()) {
+            return null;
+        }
+
+        return Dismounting.findRespawnPos(EntityType.PLAYER, world, pos, true);
+
+    }
+
+    private record SpawnKey(Identifier powerId, RegistryKey<World> dimension) {
+
+    }
+
+    private static final class SpawnPool {
+
+        private final BlockPos anchor;
+        private final ObjectLinkedOpenHashSet<BlockPos> candidates = new ObjectLinkedOpenHashSet<>();
+
+        private SpawnPool(BlockPos anchor) {
+            this.anchor = anchor;
+            this.candidates.add(anchor);
+        }
+
+        /**
+         *  Removes pooled locations until one is found that's still safe, so that no two players are handed the same one.
+         *  Falls back to the anchor once the pool ran dry, since the players would otherwise wait for the spawn search.
+         */
+        @Nullable
+        private Vec3d take(ServerWorld world) {
+
+            while (!candidates.isEmpty()) {
+
+                Vec3d safePos = findSafePos(world, candidates.removeFirst());
+                if (safePos != null) {
+                    return safePos;
+                }
+
+            }
+
+            return findSafePos(world, anchor);
+
+        }
+
+    }
+
+}
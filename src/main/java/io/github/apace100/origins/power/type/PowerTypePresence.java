@@ -0,0 +1,83 @@
+package io.github.apace100.origins.power.type;
+
+import io.github.apace100.apoli.component.PowerHolderComponent;
+import io.github.apace100.apoli.power.type.PowerType;
+import io.github.apace100.origins.access.PowerTypePresenceHolder;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ *  Flags for the Origins power types that are queried from mixin hot paths. A flag is set on an entity as soon as an
+ *  instance of the power type is created for it, so a cleared flag means that the entity cannot hold that power type,
+ *  and the {@link PowerHolderComponent} lookup can be skipped. A set flag still requires the lookup, since the power may
+ *  be inactive.
+ *
+ *  <p>Once a power of the power type is removed, the flag is marked as stale, and the next query checks whether the
+ *  entity still holds any power of that power type (active or not) to clear the flag if it doesn't.</p>
+ */
+public final class PowerTypePresence {
+
+    public static final int LIKE_WATER = 1;
+    public static final int WATER_BREATHING = 1 << 1;
+    public static final int SCARE_CREEPERS = 1 << 2;
+    public static final int WATER_VISION = 1 << 3;
+    public static final int CONDUIT_POWER_ON_LAND = 1 << 4;
+
+    /**
+     *  The power types of the flags, by the index of the bit of the flag
+     */
+    private static final List<Class<? extends PowerType>> POWER_TYPES = List.of(
+        LikeWaterPowerType.class,
+        WaterBreathingPowerType.class,
+        ScareCreepersPowerType.class,
+        WaterVisionPowerType.class,
+        ConduitPowerOnLandPowerType.class
+    );
+
+    private PowerTypePresence() {
+
+    }
+
+    public static void mark(@Nullable LivingEntity entity, int flag) {
+        if (entity instanceof PowerTypePresenceHolder holder) {
+            holder.origins$setPowerTypeFlags(holder.origins$getPowerTypeFlags() | flag);
+        }
+    }
+
+    /**
+     *  Marks the flag as stale once a power of its power type is removed from the entity, since the entity may still
+     *  hold other powers of that power type.
+     */
+    public static void unmark(@Nullable LivingEntity entity, int flag) {
+        if (entity instanceof PowerTypePresenceHolder holder) {
+            holder.origins$setStalePowerTypeFlags(holder.origins$getStalePowerTypeFlags() | flag);
+        }
+    }
+
+    /**
+     *  @return {@code false} if the specified entity cannot hold the power type of the specified flag
+     */
+    public static boolean mayHave(@Nullable Entity entity, int flag) {
+
+        if (!(entity instanceof PowerTypePresenceHolder holder) || (holder.origins$getPowerTypeFlags() & flag) == 0) {
+            return false;
+        }
+
+        if ((holder.origins$getStalePowerTypeFlags() & flag) != 0) {
+
+            holder.origins$setStalePowerTypeFlags(holder.origins$getStalePowerTypeFlags() & ~flag);
+            if (PowerHolderComponent.getPowerTypes(entity, POWER_TYPES.get(Integer.numberOfTrailingZeros(flag)), true).isEmpty()) {
+                holder.origins$setPowerTypeFlags(holder.origins$getPowerTypeFlags() & ~flag);
+                return false;
+            }
+
+        }
+
+        return true;
+
+    }
+
+}
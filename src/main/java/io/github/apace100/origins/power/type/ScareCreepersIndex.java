@@ -0,0 +1,233 @@
+package io.github.apace100.origins.power.type;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.CreeperEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ *  A per-world index of the entities that hold {@link ScareCreepersPowerType}, bucketed by chunk section, so that
+ *  creepers only have to look at the holders near them instead of scanning every nearby entity.
+ */
+public class ScareCreepersIndex {
+
+    private static final Map<ServerWorld, ScareCreepersIndex> INDICES = new WeakHashMap<>();
+
+    private final ServerWorld world;
+
+    private final Reference2IntOpenHashMap<LivingEntity> powerCounts = new Reference2IntOpenHashMap<>();
+    private final Reference2LongOpenHashMap<LivingEntity> sectionsByHolder = new Reference2LongOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<List<LivingEntity>> holdersBySection = new Long2ObjectOpenHashMap<>();
+
+    private final List<LivingEntity> movedHolders = new ReferenceArrayList<>();
+
+    private ScareCreepersIndex(ServerWorld world) {
+        this.world = world;
+    }
+
+    public static void init() {
+
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+
+            ScareCreepersIndex index = INDICES.get(world);
+            if (index != null) {
+                index.updatePositions();
+            }
+
+        });
+
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof CreeperEntity creeper && hasHolders(world)) {
+                ScareCreepersPowerType.attachGoals(creeper);
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> INDICES.clear());
+
+    }
+
+    public static void add(LivingEntity entity) {
+        add(entity, 1);
+    }
+
+    public static void remove(LivingEntity entity) {
+        if (entity.getWorld() instanceof ServerWorld serverWorld && INDICES.get(serverWorld) instanceof ScareCreepersIndex index) {
+            index.removeHolder(entity, 1);
+        }
+    }
+
+    public static boolean hasHolders(World world) {
+        return world instanceof ServerWorld serverWorld
+            && INDICES.get(serverWorld) instanceof ScareCreepersIndex index
+            && !index.powerCounts.isEmpty();
+    }
+
+    /**
+     *  @return whether any indexed holder in the world of the specified box intersects the box. This doesn't check
+     *  whether the power of the holder is active.
+     */
+    public static boolean hasHolderWithin(World world, Box box) {
+        return world instanceof ServerWorld serverWorld
+            && INDICES.get(serverWorld) instanceof ScareCreepersIndex index
+            && index.hasHolderWithin(box);
+    }
+
+    private static void add(LivingEntity entity, int count) {
+
+        if (count <= 0 || !(entity.getWorld() instanceof ServerWorld serverWorld)) {
+            return;
+        }
+
+        ScareCreepersIndex index = INDICES.computeIfAbsent(serverWorld, ScareCreepersIndex::new);
+        boolean hadHolders = !index.powerCounts.isEmpty();
+
+        index.addHolder(entity, count);
+
+        //  Only creepers in a world with holders need the goals, so they're attached once the first holder appears
+        if (!hadHolders) {
+            serverWorld.getEntitiesByType(EntityType.CREEPER, creeper -> true).forEach(ScareCreepersPowerType::attachGoals);
+        }
+
+    }
+
+    private void addHolder(LivingEntity entity, int count) {
+
+        if (powerCounts.addTo(entity, count) > 0) {
+            return;
+        }
+
+        long section = getSection(entity);
+
+        sectionsByHolder.put(entity, section);
+        holdersBySection.computeIfAbsent(section, k -> new ReferenceArrayList<>()).add(entity);
+
+    }
+
+    /**
+     *  @return the number of powers the specified entity held that are no longer accounted for by this index
+     */
+    private int removeHolder(LivingEntity entity, int count) {
+
+        int oldCount = powerCounts.getInt(entity);
+        if (oldCount <= 0) {
+            return 0;
+        }
+
+        if (oldCount > count) {
+            powerCounts.put(entity, oldCount - count);
+            return count;
+        }
+
+        powerCounts.removeInt(entity);
+        removeFromSection(entity, sectionsByHolder.removeLong(entity));
+
+        return oldCount;
+
+    }
+
+    private void removeFromSection(LivingEntity entity, long section) {
+
+        List<LivingEntity> holders = holdersBySection.get(section);
+        if (holders != null && holders.remove(entity) && holders.isEmpty()) {
+            holdersBySection.remove(section);
+        }
+
+    }
+
+    private boolean hasHolderWithin(Box box) {
+
+        int minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minX));
+        int minY = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minY));
+        int minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minZ));
+
+        int maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxX));
+        int maxY = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxY));
+        int maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxZ));
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+
+                    List<LivingEntity> holders = holdersBySection.get(ChunkSectionPos.asLong(x, y, z));
+                    if (holders == null) {
+                        continue;
+                    }
+
+                    for (int i = 0; i < holders.size(); i++) {
+
+                        LivingEntity holder = holders.get(i);
+                        if (!holder.isRemoved() && holder.getBoundingBox().intersects(box)) {
+                            return true;
+                        }
+
+                    }
+
+                }
+            }
+        }
+
+        return false;
+
+    }
+
+    /**
+     *  Moves holders whose chunk section changed since the last tick, and drops (or hands over to the right index)
+     *  holders that were removed from or left this world.
+     */
+    private void updatePositions() {
+
+        for (Reference2LongMap.Entry<LivingEntity> entry : sectionsByHolder.reference2LongEntrySet()) {
+
+            LivingEntity holder = entry.getKey();
+            if (holder.isRemoved() || holder.getWorld() != world || getSection(holder) != entry.getLongValue()) {
+                movedHolders.add(holder);
+            }
+
+        }
+
+        for (LivingEntity holder : movedHolders) {
+
+            if (holder.isRemoved()) {
+                removeHolder(holder, Integer.MAX_VALUE);
+            }
+
+            else if (holder.getWorld() != world) {
+                add(holder, removeHolder(holder, Integer.MAX_VALUE));
+            }
+
+            else {
+
+                long section = getSection(holder);
+
+                removeFromSection(holder, sectionsByHolder.put(holder, section));
+                holdersBySection.computeIfAbsent(section, k -> new ReferenceArrayList<>()).add(holder);
+
+            }
+
+        }
+
+        movedHolders.clear();
+
+    }
+
+    private static long getSection(LivingEntity entity) {
+        return ChunkSectionPos.toLong(entity.getBlockPos());
+    }
+
+}
@@ -15,42 +15,82 @@ import net.minecraft.entity.ai.goal.PrioritizedGoal;
 import net.minecraft.entity.mob.PathAwareEntity;
 import net.minecraft.predicate.entity.EntityPredicates;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 
 public class ScareCreepersPowerType extends PowerType {
 
+    private static final Predicate<LivingEntity> IS_SCARY = e -> PowerTypePresence.mayHave(e, PowerTypePresence.SCARE_CREEPERS) && PowerHolderComponent.hasPowerType(e, ScareCreepersPowerType.class);
+    private static final Predicate<LivingEntity> IS_NOT_SCARY = IS_SCARY.negate();
+
+    private static final float FLEE_DISTANCE = 6.0F;
+
     public ScareCreepersPowerType(Power power, LivingEntity entity) {
         super(power, entity);
+        PowerTypePresence.mark(entity, PowerTypePresence.SCARE_CREEPERS);
     }
 
-    public static void modifyGoals(PathAwareEntity pathAwareEntity) {
+    @Override
+    public void onAdded() {
+        ScareCreepersIndex.add(entity);
+    }
+
+    @Override
+    public void onRemoved() {
+        ScareCreepersIndex.remove(entity);
+        PowerTypePresence.unmark(entity, PowerTypePresence.SCARE_CREEPERS);
+    }
+
+    /**
+     *  Makes the specified mob flee from, and stop targeting, entities with this power type. Does nothing if the goals
+     *  were already attached to the mob.
+     */
+    public static void attachGoals(PathAwareEntity pathAwareEntity) {
 
         GoalSelector targetSelector = ((MobEntityAccessor) pathAwareEntity).getTargetSelector();
         GoalSelector goalSelector = ((MobEntityAccessor) pathAwareEntity).getGoalSelector();
 
-        Iterator<PrioritizedGoal> oldTargetPrioGoals = targetSelector.getGoals().iterator();
-        Set<PrioritizedGoal> newTargetPrioGoals = new HashSet<>();
-
-        while (oldTargetPrioGoals.hasNext()) {
+        for (PrioritizedGoal prioritizedGoal : goalSelector.getGoals()) {
+            if (prioritizedGoal.getGoal() instanceof FleeScaryEntityGoal) {
+                return;
+            }
+        }
 
-            PrioritizedGoal oldTargetPrioGoal = oldTargetPrioGoals.next();
-            if (!(oldTargetPrioGoal.getGoal() instanceof ActiveTargetGoalAccessor oldTargetGoal)) {
-                continue;
+        List<PrioritizedGoal> oldTargetPrioGoals = new ArrayList<>();
+        for (PrioritizedGoal targetPrioGoal : targetSelector.getGoals()) {
+            if (targetPrioGoal.getGoal() instanceof ActiveTargetGoalAccessor) {
+                oldTargetPrioGoals.add(targetPrioGoal);
             }
+        }
+
+        for (PrioritizedGoal oldTargetPrioGoal : oldTargetPrioGoals) {
 
-            Predicate<LivingEntity> targetCondition = MiscUtil.combineAnd(((TargetPredicateAccessor) oldTargetGoal.getTargetPredicate()).getPredicate(), e -> !PowerHolderComponent.hasPowerType(e, ScareCreepersPowerType.class));
-            PrioritizedGoal newTargetPrioGoal = new PrioritizedGoal(oldTargetPrioGoal.getPriority(), new ActiveTargetGoal<>(pathAwareEntity, oldTargetGoal.getTargetClass(), oldTargetGoal.getReciprocalChance(), oldTargetGoal.getCheckVisibility(), oldTargetGoal.getCheckCanNavigate(), targetCondition));
+            ActiveTargetGoalAccessor oldTargetGoal = (ActiveTargetGoalAccessor) oldTargetPrioGoal.getGoal();
+            Predicate<LivingEntity> targetCondition = MiscUtil.combineAnd(((TargetPredicateAccessor) oldTargetGoal.getTargetPredicate()).getPredicate(), IS_NOT_SCARY);
 
-            newTargetPrioGoals.add(newTargetPrioGoal);
-            oldTargetPrioGoals.remove();
+            //  Remove the goal through the selector, so that it's stopped properly if the mob is currently targeting
+            targetSelector.remove(oldTargetPrioGoal.getGoal());
+            targetSelector.add(oldTargetPrioGoal.getPriority(), new ActiveTargetGoal<>(pathAwareEntity, oldTargetGoal.getTargetClass(), oldTargetGoal.getReciprocalChance(), oldTargetGoal.getCheckVisibility(), oldTargetGoal.getCheckCanNavigate(), targetCondition));
 
         }
 
-        goalSelector.add(3, new FleeEntityGoal<>(pathAwareEntity, LivingEntity.class, e -> PowerHolderComponent.hasPowerType(e, ScareCreepersPowerType.class), 6.0F, 1.0D, 1.2D, EntityPredicates.EXCEPT_CREATIVE_OR_SPECTATOR::test));
-        newTargetPrioGoals.forEach(pg -> targetSelector.add(pg.getPriority(), pg.getGoal()));
+        goalSelector.add(3, new FleeScaryEntityGoal(pathAwareEntity));
+
+    }
+
+    private static class FleeScaryEntityGoal extends FleeEntityGoal<LivingEntity> {
+
+        private FleeScaryEntityGoal(PathAwareEntity mob) {
+            super(mob, LivingEntity.class, IS_SCARY, FLEE_DISTANCE, 1.0D, 1.2D, EntityPredicates.EXCEPT_CREATIVE_OR_SPECTATOR::test);
+        }
+
+        @Override
+        public boolean canStart() {
+            //  Only scan for entities to flee from if the index has a holder in range
+            return ScareCreepersIndex.hasHolderWithin(mob.getWorld(), mob.getBoundingBox().expand(FLEE_DISTANCE, 3.0D, FLEE_DISTANCE))
+                && super.canStart();
+        }
 
     }
 
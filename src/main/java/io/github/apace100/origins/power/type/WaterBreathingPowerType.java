@@ -1,11 +1,11 @@
 package io.github.apace100.origins.power.type;
 
 import io.github.apace100.apoli.component.PowerHolderComponent;
-import io.github.apace100.apoli.mixin.EntityAccessor;
 import io.github.apace100.apoli.power.Power;
 import io.github.apace100.apoli.power.type.PowerType;
 import io.github.apace100.origins.mixin.LivingEntityAccessor;
 import io.github.apace100.origins.registry.ModDamageTypes;
+import io.github.apace100.origins.util.ExposureCache;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.particle.ParticleTypes;
@@ -15,6 +15,12 @@ public class WaterBreathingPowerType extends PowerType {
 
     public WaterBreathingPowerType(Power power, LivingEntity entity) {
         super(power, entity);
+        PowerTypePresence.mark(entity, PowerTypePresence.WATER_BREATHING);
+    }
+
+    @Override
+    public void onRemoved() {
+        PowerTypePresence.unmark(entity, PowerTypePresence.WATER_BREATHING);
     }
 
     public static boolean shouldDrown(LivingEntity entity) {
@@ -25,7 +31,7 @@ public class WaterBreathingPowerType extends PowerType {
 
     public static void tick(LivingEntity entity) {
 
-        if (!PowerHolderComponent.hasPowerType(entity, WaterBreathingPowerType.class)) {
+        if (!PowerTypePresence.mayHave(entity, PowerTypePresence.WATER_BREATHING) || !PowerHolderComponent.hasPowerType(entity, WaterBreathingPowerType.class)) {
             return;
         }
 
@@ -35,7 +41,7 @@ public class WaterBreathingPowerType extends PowerType {
             int landGain = entityAccess.callGetNextAirOnLand(0);
             int landLoss = entityAccess.callGetNextAirUnderwater(entity.getAir());
 
-            if (!((EntityAccessor) entity).callIsBeingRainedOn()) {
+            if (!ExposureCache.isBeingRainedOn(entity)) {
 
                 entity.setAir(landLoss - landGain);
                 if (entity.getAir() != -20) {
@@ -8,6 +8,12 @@ public class WaterVisionPowerType extends PowerType {
 
     public WaterVisionPowerType(Power type, LivingEntity entity) {
         super(type, entity);
+        PowerTypePresence.mark(entity, PowerTypePresence.WATER_VISION);
+    }
+
+    @Override
+    public void onRemoved() {
+        PowerTypePresence.unmark(entity, PowerTypePresence.WATER_VISION);
     }
 
 }
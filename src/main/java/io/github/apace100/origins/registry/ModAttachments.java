@@ -0,0 +1,19 @@
+package io.github.apace100.origins.registry;
+
+import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.content.TemporaryCobwebExpiries;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+
+public class ModAttachments {
+
+    public static final AttachmentType<TemporaryCobwebExpiries> TEMPORARY_COBWEB_EXPIRIES = AttachmentRegistry.<TemporaryCobwebExpiries>builder()
+        .persistent(TemporaryCobwebExpiries.CODEC)
+        .initializer(TemporaryCobwebExpiries::new)
+        .buildAndRegister(Origins.identifier("temporary_cobweb_expiries"));
+
+    public static void register() {
+
+    }
+
+}
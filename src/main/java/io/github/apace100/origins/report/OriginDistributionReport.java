@@ -0,0 +1,275 @@
+package io.github.apace100.origins.report;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ *  A read-only command-line tool that reports how many players have each origin in each layer, by scanning the
+ *  {@code playerdata/*.dat} files of a world directly. It does not depend on Minecraft classes, so it can be run
+ *  against a world without starting the server:
+ *
+ *  <pre>
+ *  java -cp origins.jar io.github.apace100.origins.report.OriginDistributionReport &lt;world or playerdata directory&gt;
+ *      [--format csv|json] [--output &lt;file&gt;] [--threads &lt;count&gt;]
+ *  </pre>
+ */
+public final class OriginDistributionReport {
+
+    /**
+     *  The origin of layers that the player hasn't chosen an origin for (yet), which is counted separately
+     */
+    private static final String EMPTY_ORIGIN = "origins:empty";
+
+    private final Map<String, Map<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    private final LongAdder scannedPlayers = new LongAdder();
+    private final LongAdder playersWithoutOrigins = new LongAdder();
+    private final LongAdder emptyLayers = new LongAdder();
+    private final LongAdder failedFiles = new LongAdder();
+
+    public static void main(String[] args) {
+
+        Path directory = null;
+        Path output = null;
+
+        String format = "csv";
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format" -> format = args[++i].toLowerCase(Locale.ROOT);
+                    case "--output" -> output = Path.of(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    default -> directory = Path.of(args[i]);
+                }
+            }
+
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            directory = null;
+        }
+
+        if (directory == null || threads < 1 || !(format.equals("csv") || format.equals("json"))) {
+            System.err.println("Usage: OriginDistributionReport <world or playerdata directory> [--format csv|json] [--output <file>] [--threads <count>]");
+            System.exit(2);
+            return;
+        }
+
+        Path playerData = Files.isDirectory(directory.resolve("playerdata")) ? directory.resolve("playerdata") : directory;
+        if (!Files.isDirectory(playerData)) {
+            System.err.println("Not a directory: " + playerData);
+            System.exit(2);
+            return;
+        }
+
+        try {
+
+            OriginDistributionReport report = new OriginDistributionReport();
+            report.scan(playerData, threads);
+
+            if (output == null) {
+                report.write(System.out, format);
+            } else {
+                try (PrintStream stream = new PrintStream(Files.newOutputStream(output), false, StandardCharsets.UTF_8)) {
+                    report.write(stream, format);
+                }
+            }
+
+            System.err.printf("Scanned %d player(s), %d without origins, %d empty layer(s), %d unreadable file(s)%n", report.scannedPlayers.sum(), report.playersWithoutOrigins.sum(), report.emptyLayers.sum(), report.failedFiles.sum());
+
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Failed to generate origin distribution report: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+
+    }
+
+    public void scan(Path playerData, int threads) throws IOException, ExecutionException, InterruptedException {
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(playerData)) {
+            files = stream
+                .filter(path -> path.getFileName().toString().endsWith(".dat"))
+                .filter(Files::isRegularFile)
+                .toList();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> files.parallelStream().forEach(this::scanFile)).get();
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    private void scanFile(Path file) {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size < 2 || size > Integer.MAX_VALUE) {
+                throw new IOException("Unexpected file size " + size);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            boolean compressed = (buffer.get(0) & 0xFF) == 0x1F && (buffer.get(1) & 0xFF) == 0x8B;
+
+            InputStream stream = new SelectiveNbtReader.ByteBufferInputStream(buffer);
+            if (compressed) {
+                stream = new BufferedInputStream(new GZIPInputStream(stream, 8192), 8192);
+            }
+
+            boolean[] hasOrigin = new boolean[1];
+            new SelectiveNbtReader(stream).readOriginLayers((layer, origin) -> hasOrigin[0] |= count(layer, origin));
+
+            scannedPlayers.increment();
+            if (!hasOrigin[0]) {
+                playersWithoutOrigins.increment();
+            }
+
+        } catch (IOException | UncheckedIOException e) {
+            failedFiles.increment();
+            System.err.println("Could not read \"" + file.getFileName() + "\": " + e.getMessage());
+        }
+
+    }
+
+    /**
+     *  @return whether the origin was counted, which it isn't if it's {@link #EMPTY_ORIGIN}
+     */
+    private boolean count(String layer, String origin) {
+
+        if (EMPTY_ORIGIN.equals(origin)) {
+            emptyLayers.increment();
+            return false;
+        }
+
+        counts
+            .computeIfAbsent(layer, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(origin, k -> new LongAdder())
+            .increment();
+
+        return true;
+
+    }
+
+    public void write(PrintStream stream, String format) {
+
+        //  Sort layers and origins by ID so that reports of the same world can be compared with each other
+        Map<String, Map<String, Long>> sortedCounts = new TreeMap<>();
+        counts.forEach((layer, originCounts) -> {
+
+            Map<String, Long> sortedOriginCounts = sortedCounts.computeIfAbsent(layer, k -> new TreeMap<>());
+            originCounts.forEach((origin, count) -> sortedOriginCounts.put(origin, count.sum()));
+
+        });
+
+        if (format.equals("json")) {
+            writeJson(stream, sortedCounts);
+        } else {
+            writeCsv(stream, sortedCounts);
+        }
+
+        stream.flush();
+
+    }
+
+    private void writeCsv(PrintStream stream, Map<String, Map<String, Long>> sortedCounts) {
+
+        stream.println("layer,origin,players,share");
+        sortedCounts.forEach((layer, originCounts) -> {
+
+            long total = originCounts.values().stream().mapToLong(Long::longValue).sum();
+            originCounts.forEach((origin, count) -> stream.printf(Locale.ROOT, "%s,%s,%d,%.4f%n", escapeCsv(layer), escapeCsv(origin), count, (double) count / total));
+
+        });
+
+    }
+
+    private void writeJson(PrintStream stream, Map<String, Map<String, Long>> sortedCounts) {
+
+        stream.println("{");
+        stream.printf("  \"players\": %d,%n", scannedPlayers.sum());
+        stream.printf("  \"players_without_origins\": %d,%n", playersWithoutOrigins.sum());
+        stream.printf("  \"empty_layers\": %d,%n", emptyLayers.sum());
+        stream.printf("  \"unreadable_files\": %d,%n", failedFiles.sum());
+        stream.print("  \"layers\": {");
+
+        boolean firstLayer = true;
+        for (Map.Entry<String, Map<String, Long>> layerEntry : sortedCounts.entrySet()) {
+
+            stream.print(firstLayer ? "\n" : ",\n");
+            stream.printf("    %s: {", escapeJson(layerEntry.getKey()));
+
+            boolean firstOrigin = true;
+            for (Map.Entry<String, Long> originEntry : layerEntry.getValue().entrySet()) {
+                stream.print(firstOrigin ? "\n" : ",\n");
+                stream.printf("      %s: %d", escapeJson(originEntry.getKey()), originEntry.getValue());
+                firstOrigin = false;
+            }
+
+            stream.print("\n    }");
+            firstLayer = false;
+
+        }
+
+        stream.println(sortedCounts.isEmpty() ? "}" : "\n  }");
+        stream.println("}");
+
+    }
+
+    private static String escapeCsv(String value) {
+        return value.indexOf(',') == -1 && value.indexOf('"') == -1
+            ? value
+            : "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String escapeJson(String value) {
+
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+
+        }
+
+        return builder.append('"').toString();
+
+    }
+
+}
@@ -0,0 +1,273 @@
+package io.github.apace100.origins.report;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ *  A streaming NBT reader that only descends into the compounds leading to the {@code OriginLayers} list of the
+ *  origin component, and skips over the payload of every other tag without materializing it.
+ */
+public final class SelectiveNbtReader {
+
+    private static final byte END = 0;
+    private static final byte BYTE = 1;
+    private static final byte SHORT = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BYTE_ARRAY = 7;
+    private static final byte STRING = 8;
+    private static final byte LIST = 9;
+    private static final byte COMPOUND = 10;
+    private static final byte INT_ARRAY = 11;
+    private static final byte LONG_ARRAY = 12;
+
+    /**
+     *  The paths (relative to the root compound) at which the origin component may be stored. Cardinal Components
+     *  nests entity components inside {@code cardinal_components}, while some older saves have them at the root.
+     */
+    private static final List<List<String>> COMPONENT_PATHS = List.of(
+        List.of("cardinal_components", "origins:origin"),
+        List.of("origins:origin")
+    );
+
+    private static final String LAYERS_KEY = "OriginLayers";
+    private static final String LAYER_KEY = "Layer";
+    private static final String ORIGIN_KEY = "Origin";
+
+    private final DataInput input;
+    private final byte[] skipBuffer = new byte[4096];
+
+    public SelectiveNbtReader(InputStream stream) {
+        this.input = new DataInputStream(stream);
+    }
+
+    /**
+     *  Reads a single root compound and passes every {@code (layer, origin)} entry of the {@code OriginLayers} list
+     *  to the specified consumer.
+     *
+     *  @return {@code true} if the {@code OriginLayers} list was found
+     */
+    public boolean readOriginLayers(BiConsumer<String, String> consumer) throws IOException {
+
+        byte rootType = input.readByte();
+        if (rootType != COMPOUND) {
+            throw new IOException("Expected root compound tag, found tag type " + rootType);
+        }
+
+        input.readUTF();
+        return readCompound(new ArrayList<>(), consumer);
+
+    }
+
+    /**
+     *  @param path the names of the compounds leading to this compound, starting below the root compound
+     */
+    private boolean readCompound(List<String> path, BiConsumer<String, String> consumer) throws IOException {
+
+        boolean found = false;
+        byte type;
+
+        while ((type = input.readByte()) != END) {
+
+            String name = input.readUTF();
+
+            if (type == COMPOUND && isOnPath(path, name)) {
+
+                path.add(name);
+                found |= readCompound(path, consumer);
+
+                path.remove(path.size() - 1);
+
+            }
+
+            else if (type == LIST && COMPONENT_PATHS.contains(path) && LAYERS_KEY.equals(name)) {
+                readLayerList(consumer);
+                found = true;
+            }
+
+            else {
+                skipPayload(type);
+            }
+
+        }
+
+        return found;
+
+    }
+
+    private void readLayerList(BiConsumer<String, String> consumer) throws IOException {
+
+        byte elementType = input.readByte();
+        int length = input.readInt();
+
+        if (elementType != COMPOUND) {
+
+            for (int i = 0; i < length; i++) {
+                skipPayload(elementType);
+            }
+
+            return;
+
+        }
+
+        for (int i = 0; i < length; i++) {
+
+            String layer = null;
+            String origin = null;
+            byte type;
+
+            while ((type = input.readByte()) != END) {
+
+                String name = input.readUTF();
+
+                if (type == STRING && LAYER_KEY.equals(name)) {
+                    layer = input.readUTF();
+                }
+
+                else if (type == STRING && ORIGIN_KEY.equals(name)) {
+                    origin = input.readUTF();
+                }
+
+                else {
+                    skipPayload(type);
+                }
+
+            }
+
+            if (layer != null && origin != null) {
+                consumer.accept(layer, origin);
+            }
+
+        }
+
+    }
+
+    /**
+     *  @return whether the compound with the specified name, inside the compound at the specified path, is part of one of
+     *  the {@link #COMPONENT_PATHS}
+     */
+    private static boolean isOnPath(List<String> path, String name) {
+
+        int depth = path.size();
+        for (List<String> componentPath : COMPONENT_PATHS) {
+            if (depth < componentPath.size() && componentPath.subList(0, depth).equals(path) && componentPath.get(depth).equals(name)) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    private void skipPayload(byte type) throws IOException {
+        switch (type) {
+            case BYTE -> skip(1);
+            case SHORT -> skip(2);
+            case INT, FLOAT -> skip(4);
+            case LONG, DOUBLE -> skip(8);
+            case BYTE_ARRAY -> skip(input.readInt());
+            case STRING -> skip(input.readUnsignedShort());
+            case INT_ARRAY -> skip(4L * input.readInt());
+            case LONG_ARRAY -> skip(8L * input.readInt());
+            case LIST -> {
+
+                byte elementType = input.readByte();
+                int length = input.readInt();
+
+                switch (elementType) {
+                    case END -> { }
+                    case BYTE -> skip(length);
+                    case SHORT -> skip(2L * length);
+                    case INT, FLOAT -> skip(4L * length);
+                    case LONG, DOUBLE -> skip(8L * length);
+                    default -> {
+                        for (int i = 0; i < length; i++) {
+                            skipPayload(elementType);
+                        }
+                    }
+                }
+
+            }
+            case COMPOUND -> {
+
+                byte elementType;
+                while ((elementType = input.readByte()) != END) {
+                    skip(input.readUnsignedShort());
+                    skipPayload(elementType);
+                }
+
+            }
+            default -> throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+
+    private void skip(long bytes) throws IOException {
+
+        while (bytes > 0) {
+            int chunk = (int) Math.min(bytes, skipBuffer.length);
+            input.readFully(skipBuffer, 0, chunk);
+            bytes -= chunk;
+        }
+
+    }
+
+    /**
+     *  An {@link InputStream} view over a (memory-mapped) {@link ByteBuffer}.
+     */
+    static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+
+            if (length == 0) {
+                return 0;
+            }
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+
+            return read;
+
+        }
+
+        @Override
+        public long skip(long bytes) {
+
+            int skipped = (int) Math.max(0, Math.min(bytes, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+
+            return skipped;
+
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+    }
+
+}
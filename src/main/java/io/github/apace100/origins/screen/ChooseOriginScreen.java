@@ -8,25 +8,31 @@ import io.github.apace100.origins.registry.ModItems;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.tooltip.Tooltip;
 import net.minecraft.client.gui.widget.ButtonWidget;
-import net.minecraft.component.DataComponentTypes;
-import net.minecraft.component.type.ProfileComponent;
-import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.item.ItemStack;
-import net.minecraft.item.Items;
+import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 
 public class ChooseOriginScreen extends OriginDisplayScreen {
 
+	private static final int ORIGIN_LIST_WIDTH = 120;
+
+	private static boolean showOriginList = false;
+
 	private final List<OriginLayer> layerList;
 	private final List<Origin> originSelection;
 
+	private final OriginOptions options;
+
 	private final int currentLayerIndex;
 
 	private Origin randomOrigin;
@@ -34,38 +40,36 @@ public class ChooseOriginScreen extends OriginDisplayScreen {
 	private int currentOriginIndex = 0;
 	private int maxSelection = 0;
 
+	@Nullable
+	private OriginListWidget originList;
+	private String searchQuery = "";
+	private int searchGeneration = 0;
+
 	
-	public ChooseOriginScreen(List<OriginLayer> layerList, int currentLayerIndex, boolean showDirtBackground) {
+	public ChooseOriginScreen(List<OriginLayer> layerList, int currentLayerIndex, boolean showDirtBackground, OriginOptions options) {
 		super(Text.translatable(Origins.MODID + ".screen.choose_origin"), showDirtBackground);
 
 		this.layerList = layerList;
 		this.currentLayerIndex = currentLayerIndex;
 		this.originSelection = new ArrayList<>(layerList.size());
+		this.options = options;
 
-		PlayerEntity player = MinecraftClient.getInstance().player;
-		if (player == null) {
+		if (MinecraftClient.getInstance().player == null) {
 			return;
 		}
 
-		OriginLayer currentLayer = getCurrentLayer();
-		currentLayer.getOrigins(player).forEach(originId -> {
+		OriginOptions.LayerOptions layerOptions = options.get(getCurrentLayer());
+		layerOptions.origins().forEach(originId -> {
 
 			Origin origin = OriginManager.get(originId);
-			if (!origin.isChoosable()) {
-				return;
-			}
-
-			ItemStack iconStack = origin.getDisplayItem();
-			if (iconStack.isOf(Items.PLAYER_HEAD) && !iconStack.contains(DataComponentTypes.PROFILE)) {
-				iconStack.set(DataComponentTypes.PROFILE, new ProfileComponent(player.getGameProfile()));
+			if (origin.isChoosable()) {
+				originSelection.add(origin);
 			}
 
-			originSelection.add(origin);
-
 		});
 
 		originSelection.sort(Comparator.comparingInt((Origin o) -> o.getImpact().getImpactValue()).thenComparingInt(Origin::getOrder));
-		maxSelection = currentLayer.getOriginOptionCount(player);
+		maxSelection = layerOptions.optionCount();
 
 		if (maxSelection == 0) {
 			openNextLayerScreen();
@@ -77,7 +81,7 @@ public class ChooseOriginScreen extends OriginDisplayScreen {
 	}
 
 	private void openNextLayerScreen() {
-		MinecraftClient.getInstance().setScreen(new WaitForNextLayerScreen(layerList, currentLayerIndex, this.showDirtBackground));
+		MinecraftClient.getInstance().setScreen(new WaitForNextLayerScreen(layerList, currentLayerIndex, this.showDirtBackground, options));
 	}
 
 	@Override
@@ -119,28 +123,92 @@ public class ChooseOriginScreen extends OriginDisplayScreen {
 		//	Draw the previous origin button
 		addDrawableChild(ButtonWidget.builder(
 			Text.of("<"),
-			button -> {
-
-				currentOriginIndex = (currentOriginIndex - 1 + maxSelection) % maxSelection;
-				Origin newOrigin = getCurrentOrigin();
-
-				showOrigin(newOrigin, getCurrentLayer(), newOrigin == randomOrigin);
-
-			}
+			button -> selectOrigin((currentOriginIndex - 1 + maxSelection) % maxSelection)
 		).dimensions(guiLeft - 40, height / 2 - 10, 20, 20).build());
 
 		//	Draw the next origin button
 		addDrawableChild(ButtonWidget.builder(
 			Text.of(">"),
+			button -> selectOrigin((currentOriginIndex + 1) % maxSelection)
+		).dimensions(guiLeft + WINDOW_WIDTH + 20, height / 2 - 10, 20, 20).build());
+
+		//	The origin list is shown to the left of the previous origin button, if there's room for it
+		int originListX = guiLeft - 48 - ORIGIN_LIST_WIDTH;
+		if (originListX < 4) {
+			this.originList = null;
+			return;
+		}
+
+		//	Draw the button that toggles the origin list
+		addDrawableChild(ButtonWidget.builder(
+			Text.of("\u2261"),
 			button -> {
+				showOriginList = !showOriginList;
+				clearAndInit();
+			}
+		).dimensions(guiLeft + WINDOW_WIDTH / 2 - 74, guiTop + WINDOW_HEIGHT + 5, 20, 20).tooltip(Tooltip.of(Text.translatable(Origins.MODID + ".gui.origin_list"))).build());
+
+		if (!showOriginList) {
+			this.originList = null;
+			return;
+		}
 
-				currentOriginIndex = (currentOriginIndex + 1) % maxSelection;
-				Origin newOrigin = getCurrentOrigin();
+		//	Draw the search field and the origin list
+		TextFieldWidget searchField = addDrawableChild(new TextFieldWidget(textRenderer, originListX, guiTop, ORIGIN_LIST_WIDTH, 20, Text.translatable(Origins.MODID + ".gui.search")));
+		searchField.setPlaceholder(Text.translatable(Origins.MODID + ".gui.search").formatted(Formatting.GRAY));
+		searchField.setText(searchQuery);
+		searchField.setChangedListener(this::search);
 
-				showOrigin(newOrigin, getCurrentLayer(), newOrigin == randomOrigin);
+		this.originList = addDrawableChild(new OriginListWidget(client, originListX, guiTop + 24, ORIGIN_LIST_WIDTH, WINDOW_HEIGHT - 24, origin -> selectOrigin(originSelection.indexOf(origin))));
+		this.search(searchQuery);
 
+	}
+
+	private void selectOrigin(int index) {
+
+		currentOriginIndex = index;
+		Origin newOrigin = getCurrentOrigin();
+
+		showOrigin(newOrigin, getCurrentLayer(), newOrigin == randomOrigin);
+		if (originList != null) {
+			originList.setSelectedOrigin(newOrigin);
+		}
+
+	}
+
+	/**
+	 *	Shows the origins that match the query in the origin list. The search index may still be built in the background,
+	 *	in which case the list is updated once it's done.
+	 */
+	private void search(String query) {
+
+		this.searchQuery = query;
+		int generation = ++searchGeneration;
+
+		if (originList == null) {
+			return;
+		}
+
+		if (query.isBlank()) {
+			originList.setOrigins(originSelection, getCurrentOrigin());
+			return;
+		}
+
+		OriginSearchIndex.get().thenAcceptAsync(index -> {
+
+			if (generation != searchGeneration || originList == null) {
+				return;
 			}
-		).dimensions(guiLeft + WINDOW_WIDTH + 20, height / 2 - 10, 20, 20).build());
+
+			Set<Identifier> matchingIds = index.search(query);
+			List<Origin> matchingOrigins = originSelection
+				.stream()
+				.filter(origin -> matchingIds.contains(origin.getId()))
+				.toList();
+
+			originList.setOrigins(matchingOrigins, getCurrentOrigin());
+
+		}, MinecraftClient.getInstance());
 
 	}
 
@@ -176,7 +244,7 @@ public class ChooseOriginScreen extends OriginDisplayScreen {
 		this.randomOrigin = Origin.special(Origins.identifier("random"), ModItems.ORB_OF_ORIGIN.getDefaultStack(), Impact.NONE, -1);
 
 		MutableText randomOriginText = Text.of("").copy();
-		List<Identifier> randoms = layerList.get(currentLayerIndex).getRandomOrigins(MinecraftClient.getInstance().player);
+		List<Identifier> randoms = new ArrayList<>(options.get(getCurrentLayer()).randomOrigins());
 
 		randoms.sort((ia, ib) -> {
 
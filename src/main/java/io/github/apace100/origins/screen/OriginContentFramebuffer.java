@@ -0,0 +1,180 @@
+package io.github.apace100.origins.screen;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.systems.VertexSorter;
+import io.github.apace100.origins.badge.BadgeSpriteAtlas;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gl.Framebuffer;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+
+/**
+ *  Renders the {@link OriginContentLayout layout} of the content of an {@link OriginDisplayScreen} once into an
+ *  off-screen framebuffer, and draws the part of the content that is in view by copying the matching slice of the
+ *  framebuffer. The content is only rendered again once the layout or the GUI scale changes.
+ *
+ *  <p>The framebuffer holds premultiplied colors: it's cleared to transparent black and text is rendered into it with
+ *  the usual translucent blending, so it's drawn onto the screen with {@code ONE, ONE_MINUS_SRC_ALPHA} blending.</p>
+ */
+public class OriginContentFramebuffer implements AutoCloseable {
+
+    private final int width;
+
+    @Nullable
+    private Framebuffer framebuffer;
+    @Nullable
+    private OriginContentLayout renderedLayout;
+
+    private double renderedScale;
+
+    /**
+     *  @param width the width of the content, in GUI pixels
+     */
+    public OriginContentFramebuffer(int width) {
+        this.width = width;
+    }
+
+    /**
+     *  Draws the rows of the content between {@code minY} and {@code maxY}, rendering the content into the framebuffer
+     *  first if it changed since it was last rendered.
+     *
+     *  @param x the X position of the left edge of the content on the screen
+     *  @param y the Y position of the top edge of the content on the screen
+     *  @return whether the content was drawn; it's not drawn if it's too tall to fit into a texture, in which case it has
+     *  to be drawn directly
+     */
+    public boolean draw(DrawContext context, TextRenderer textRenderer, OriginContentLayout layout, int x, int y, int minY, int maxY) {
+
+        double scale = MinecraftClient.getInstance().getWindow().getScaleFactor();
+        int textureWidth = MathHelper.ceil(width * scale);
+        int textureHeight = MathHelper.ceil(layout.getHeight() * scale);
+
+        int maxTextureSize = RenderSystem.maxSupportedTextureSize();
+        if (textureWidth > maxTextureSize || textureHeight > maxTextureSize) {
+            this.close();
+            return false;
+        }
+
+        if (textureHeight <= 0) {
+            return true;
+        }
+
+        if (framebuffer == null || layout != renderedLayout || scale != renderedScale) {
+            this.render(context, textRenderer, layout, textureWidth, textureHeight);
+            this.renderedLayout = layout;
+            this.renderedScale = scale;
+        }
+
+        minY = Math.max(0, minY);
+        maxY = Math.min(layout.getHeight(), maxY);
+
+        if (minY < maxY) {
+            this.blit(context, x, y, minY, maxY, layout.getHeight());
+        }
+
+        return true;
+
+    }
+
+    @Override
+    public void close() {
+
+        if (framebuffer != null) {
+            framebuffer.delete();
+        }
+
+        this.framebuffer = null;
+        this.renderedLayout = null;
+
+    }
+
+    private void render(DrawContext context, TextRenderer textRenderer, OriginContentLayout layout, int textureWidth, int textureHeight) {
+
+        MinecraftClient client = MinecraftClient.getInstance();
+
+        //  Flush whatever the screen batched so far, since the content is drawn with the same vertex consumers
+        context.draw();
+
+        if (framebuffer == null) {
+            this.framebuffer = new SimpleFramebuffer(textureWidth, textureHeight, false, MinecraftClient.IS_SYSTEM_MAC);
+        }
+
+        else if (framebuffer.textureWidth != textureWidth || framebuffer.textureHeight != textureHeight) {
+            framebuffer.resize(textureWidth, textureHeight, MinecraftClient.IS_SYSTEM_MAC);
+        }
+
+        framebuffer.setClearColor(0.0F, 0.0F, 0.0F, 0.0F);
+        framebuffer.clear(MinecraftClient.IS_SYSTEM_MAC);
+        framebuffer.beginWrite(true);
+
+        Matrix4f previousProjection = RenderSystem.getProjectionMatrix();
+        VertexSorter previousVertexSorting = RenderSystem.getVertexSorting();
+
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(0.0F, width, layout.getHeight(), 0.0F, 1000.0F, 21000.0F), VertexSorter.BY_Z);
+
+        DrawContext framebufferContext = new DrawContext(client, client.getBufferBuilders().getEntityVertexConsumers());
+        for (OriginContentLayout.Line line : layout.getLines()) {
+            framebufferContext.drawTextWithShadow(textRenderer, line.text(), line.x(), line.y(), line.color());
+        }
+
+        framebufferContext.draw();
+
+        RenderSystem.enableBlend();
+        RenderSystem.blendFuncSeparate(GlStateManager.SrcFactor.SRC_ALPHA, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA, GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        BadgeSpriteAtlas.INSTANCE.drawBadges(framebufferContext, layout.getBadges(), 0, 0, -2);
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+
+        RenderSystem.setProjectionMatrix(previousProjection, previousVertexSorting);
+        client.getFramebuffer().beginWrite(true);
+
+    }
+
+    private void blit(DrawContext context, int x, int y, int minY, int maxY, int height) {
+
+        if (framebuffer == null) {
+            return;
+        }
+
+        //  Textures of framebuffers are upside down, so V = 1 is the top of the content
+        float minV = 1.0F - (float) minY / height;
+        float maxV = 1.0F - (float) maxY / height;
+
+        float x1 = x;
+        float x2 = x + width;
+        float y1 = y + minY;
+        float y2 = y + maxY;
+
+        Matrix4f matrix = context.getMatrices().peek().getPositionMatrix();
+
+        RenderSystem.setShaderTexture(0, framebuffer.getColorAttachment());
+        RenderSystem.setShader(GameRenderer::getPositionTexProgram);
+        RenderSystem.enableBlend();
+        RenderSystem.blendFunc(GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        BufferBuilder bufferBuilder = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+        bufferBuilder.vertex(matrix, x1, y1, 0.0F).texture(0.0F, minV);
+        bufferBuilder.vertex(matrix, x1, y2, 0.0F).texture(0.0F, maxV);
+        bufferBuilder.vertex(matrix, x2, y2, 0.0F).texture(1.0F, maxV);
+        bufferBuilder.vertex(matrix, x2, y1, 0.0F).texture(1.0F, minV);
+        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end());
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+
+    }
+
+}
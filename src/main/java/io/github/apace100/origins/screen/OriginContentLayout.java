@@ -0,0 +1,301 @@
+package io.github.apace100.origins.screen;
+
+import io.github.apace100.apoli.power.MultiplePower;
+import io.github.apace100.apoli.power.Power;
+import io.github.apace100.origins.badge.Badge;
+import io.github.apace100.origins.badge.BadgeManager;
+import io.github.apace100.origins.badge.BadgeSpriteAtlas;
+import io.github.apace100.origins.origin.Origin;
+import io.github.apace100.origins.origin.OriginLayer;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ *  The layout of the scrollable content of an {@link OriginDisplayScreen}: the wrapped lines of the description and of
+ *  the powers of an origin, and the positions of the badges of the powers. Positions are relative to the top left corner
+ *  of the content, and lines and badges are sorted by their Y position, so that the lines and badges in view can be found
+ *  with a binary search.
+ *
+ *  <p>A layout is built for an origin, layer, width and language, and has to be rebuilt once any of them change (see
+ *  {@link #matches}), or once resources are reloaded.</p>
+ */
+public class OriginContentLayout {
+
+    public static final int LINE_HEIGHT = 12;
+    public static final int BADGE_SIZE = BadgeSpriteAtlas.PositionedBadge.SIZE;
+
+    private static final int BADGE_SPACING = 10;
+    private static final int TEXT_INDENT = 2;
+
+    private static final int DESCRIPTION_COLOR = 0xCCCCCC;
+    private static final int POWER_NAME_COLOR = 0xFFFFFF;
+
+    private final Origin origin;
+    @Nullable
+    private final OriginLayer layer;
+    @Nullable
+    private final Text randomOriginText;
+
+    private final boolean isRandom;
+    private final int width;
+    private final String language;
+
+    private final List<Line> lines;
+    private final int[] lineYs;
+
+    private final List<BadgeEntry> badges;
+    private final int[] badgeYs;
+
+    /**
+     *  The badges by the cells of a grid of {@link #BADGE_SPACING} by {@link #BADGE_SPACING} pixels that they overlap
+     */
+    private final Long2ObjectOpenHashMap<List<BadgeEntry>> badgesByCell = new Long2ObjectOpenHashMap<>();
+
+    private final int height;
+
+    private OriginContentLayout(Origin origin, @Nullable OriginLayer layer, @Nullable Text randomOriginText, boolean isRandom, int width, String language, List<Line> lines, List<BadgeEntry> badges, int height) {
+
+        this.origin = origin;
+        this.layer = layer;
+        this.randomOriginText = randomOriginText;
+        this.isRandom = isRandom;
+        this.width = width;
+        this.language = language;
+
+        this.lines = List.copyOf(lines);
+        this.lineYs = lines.stream().mapToInt(Line::y).toArray();
+
+        this.badges = List.copyOf(badges);
+        this.badgeYs = badges.stream().mapToInt(BadgeEntry::y).toArray();
+
+        for (BadgeEntry badge : this.badges) {
+            for (int cellX = getCell(badge.x()); cellX <= getCell(badge.x() + BADGE_SIZE - 1); cellX++) {
+                for (int cellY = getCell(badge.y()); cellY <= getCell(badge.y() + BADGE_SIZE - 1); cellY++) {
+                    badgesByCell.computeIfAbsent(getCellKey(cellX, cellY), k -> new ArrayList<>(1)).add(badge);
+                }
+            }
+        }
+
+        this.height = height;
+
+    }
+
+    public static OriginContentLayout build(TextRenderer textRenderer, Origin origin, @Nullable OriginLayer layer, @Nullable Text randomOriginText, boolean isRandom, int width) {
+
+        List<Line> lines = new ArrayList<>();
+        List<BadgeEntry> badges = new ArrayList<>();
+
+        int y = 0;
+
+        Text description = origin == Origin.EMPTY && layer != null && layer.getMissingDescription() != null ? layer.getMissingDescription() : origin.getDescription();
+        for (OrderedText descriptionLine : textRenderer.wrapLines(description, width)) {
+            lines.add(new Line(descriptionLine, TEXT_INDENT, y, DESCRIPTION_COLOR));
+            y += LINE_HEIGHT;
+        }
+
+        y += LINE_HEIGHT;
+        if (isRandom) {
+
+            if (randomOriginText != null) {
+                for (OrderedText randomOriginLine : textRenderer.wrapLines(randomOriginText, width)) {
+                    y += LINE_HEIGHT;
+                    lines.add(new Line(randomOriginLine, TEXT_INDENT, y, DESCRIPTION_COLOR));
+                }
+            }
+
+            y += 14;
+
+        }
+
+        else {
+
+            for (Power power : origin.getPowers()) {
+
+                if (power.isHidden()) {
+                    continue;
+                }
+
+                List<OrderedText> powerName = textRenderer.wrapLines(power.getName().formatted(Formatting.UNDERLINE), width);
+                int powerNameWidth = powerName.isEmpty() ? 0 : textRenderer.getWidth(powerName.getLast());
+
+                for (OrderedText powerNameLine : powerName) {
+                    lines.add(new Line(powerNameLine, 0, y, POWER_NAME_COLOR));
+                    y += LINE_HEIGHT;
+                }
+
+                y -= LINE_HEIGHT;
+
+                int badgeStartX = powerNameWidth + 4;
+                int badgeEndX = 135;
+
+                int badgeOffsetX = 0;
+                int badgeOffsetY = 0;
+
+                for (Power selfOrSubPower : getSelfOrSubPowers(power)) {
+
+                    for (Badge badge : BadgeManager.getPowerBadges(selfOrSubPower.getId())) {
+
+                        int badgeX = badgeStartX + BADGE_SPACING * badgeOffsetX;
+                        int badgeY = (y - 1) + BADGE_SPACING * badgeOffsetY;
+
+                        if (badgeX >= badgeEndX) {
+
+                            badgeOffsetX = 0;
+                            badgeOffsetY++;
+
+                            badgeX = badgeStartX = 0;
+                            badgeY = (y - 1) + BADGE_SPACING * badgeOffsetY;
+
+                        }
+
+                        badges.add(new BadgeEntry(selfOrSubPower, badge, badgeX, badgeY));
+                        badgeOffsetX++;
+
+                    }
+
+                }
+
+                y += badgeOffsetY * BADGE_SPACING;
+                for (OrderedText powerDescriptionLine : textRenderer.wrapLines(power.getDescription(), width)) {
+                    y += LINE_HEIGHT;
+                    lines.add(new Line(powerDescriptionLine, TEXT_INDENT, y, DESCRIPTION_COLOR));
+                }
+
+                y += 20;
+
+            }
+
+        }
+
+        return new OriginContentLayout(origin, layer, randomOriginText, isRandom, width, getLanguage(), lines, badges, y);
+
+    }
+
+    /**
+     *  @return whether this layout was built for the specified content, width and the current language
+     */
+    public boolean matches(Origin origin, @Nullable OriginLayer layer, @Nullable Text randomOriginText, boolean isRandom, int width) {
+        return this.origin == origin
+            && this.layer == layer
+            && this.isRandom == isRandom
+            && (!isRandom || Objects.equals(this.randomOriginText, randomOriginText))
+            && this.width == width
+            && this.language.equals(getLanguage());
+    }
+
+    /**
+     *  @return the height of the content, which is where the content following the last line would start
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public List<BadgeEntry> getBadges() {
+        return badges;
+    }
+
+    /**
+     *  @return the lines with a Y position between {@code minY} and {@code maxY} (both inclusive)
+     */
+    public List<Line> getLines(int minY, int maxY) {
+        return lines.subList(lowerBound(lineYs, minY), lowerBound(lineYs, maxY + 1));
+    }
+
+    /**
+     *  @return the badges with a Y position between {@code minY} and {@code maxY} (both inclusive)
+     */
+    public List<BadgeEntry> getBadges(int minY, int maxY) {
+        return badges.subList(lowerBound(badgeYs, minY), lowerBound(badgeYs, maxY + 1));
+    }
+
+    /**
+     *  @return the badge at the specified position, or {@code null} if there's no badge at that position
+     */
+    @Nullable
+    public BadgeEntry getBadgeAt(int x, int y) {
+
+        List<BadgeEntry> cellBadges = badgesByCell.get(getCellKey(getCell(x), getCell(y)));
+        if (cellBadges == null) {
+            return null;
+        }
+
+        for (BadgeEntry badge : cellBadges) {
+            if ((x >= badge.x() && x < badge.x() + BADGE_SIZE) && (y >= badge.y() && y < badge.y() + BADGE_SIZE)) {
+                return badge;
+            }
+        }
+
+        return null;
+
+    }
+
+    private static int getCell(int coordinate) {
+        return Math.floorDiv(coordinate, BADGE_SPACING);
+    }
+
+    private static long getCellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static int lowerBound(int[] sortedValues, int value) {
+
+        int low = 0;
+        int high = sortedValues.length;
+
+        while (low < high) {
+
+            int mid = (low + high) >>> 1;
+            if (sortedValues[mid] < value) {
+                low = mid + 1;
+            }
+
+            else {
+                high = mid;
+            }
+
+        }
+
+        return low;
+
+    }
+
+    private static Collection<? extends Power> getSelfOrSubPowers(Power power) {
+
+        if (!BadgeManager.hasPowerBadges(power) && power instanceof MultiplePower multiplePower) {
+            return multiplePower.getSubPowers();
+        }
+
+        else {
+            return Set.of(power);
+        }
+
+    }
+
+    private static String getLanguage() {
+        return MinecraftClient.getInstance().getLanguageManager().getLanguage();
+    }
+
+    public record Line(OrderedText text, int x, int y, int color) {
+
+    }
+
+    public record BadgeEntry(Power power, Badge badge, int x, int y) implements BadgeSpriteAtlas.PositionedBadge {
+
+    }
+
+}
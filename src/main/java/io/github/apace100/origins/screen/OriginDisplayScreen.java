@@ -1,34 +1,24 @@
 package io.github.apace100.origins.screen;
 
-import io.github.apace100.apoli.power.MultiplePower;
-import io.github.apace100.apoli.power.Power;
 import io.github.apace100.apoli.screen.widget.ScrollingTextWidget;
 import io.github.apace100.apoli.util.TextAlignment;
 import io.github.apace100.origins.Origins;
-import io.github.apace100.origins.badge.Badge;
-import io.github.apace100.origins.badge.BadgeManager;
+import io.github.apace100.origins.badge.BadgeSpriteAtlas;
+import io.github.apace100.origins.badge.BadgeTooltipCache;
 import io.github.apace100.origins.mixin.DrawContextAccessor;
 import io.github.apace100.origins.origin.Impact;
 import io.github.apace100.origins.origin.Origin;
 import io.github.apace100.origins.origin.OriginLayer;
-import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.tooltip.HoveredTooltipPositioner;
-import net.minecraft.client.gui.tooltip.TooltipComponent;
-import net.minecraft.item.ItemStack;
 import net.minecraft.text.MutableText;
-import net.minecraft.text.OrderedText;
 import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
-import java.util.function.Predicate;
 
 public class OriginDisplayScreen extends Screen {
 
@@ -42,7 +32,12 @@ public class OriginDisplayScreen extends Screen {
     protected static final int WINDOW_WIDTH = 176;
     protected static final int WINDOW_HEIGHT = 182;
 
-    private final LinkedList<RenderedBadge> renderedBadges = new LinkedList<>();
+    /**
+     *  The height of the visible part of the scrollable content
+     */
+    private static final int CONTENT_VIEW_HEIGHT = WINDOW_HEIGHT - 72;
+
+    private final OriginContentFramebuffer contentFramebuffer = new OriginContentFramebuffer(WINDOW_WIDTH - 18);
 
     protected final boolean showDirtBackground;
 
@@ -52,6 +47,8 @@ public class OriginDisplayScreen extends Screen {
     private OriginLayer prevLayer;
     private Text randomOriginText;
     private ScrollingTextWidget originNameWidget;
+    @Nullable
+    private OriginContentLayout contentLayout;
 
     private boolean refreshOriginNameWidget = false;
 
@@ -96,6 +93,15 @@ public class OriginDisplayScreen extends Screen {
         this.originNameWidget = new ScrollingTextWidget(guiLeft + 38, guiTop + 18, WINDOW_WIDTH - (62 + 3 * 8), 9, Text.empty(), true, textRenderer);
         this.refreshOriginNameWidget = true;
 
+        //  The screen is also re-initialized after resources are reloaded, which may have changed the font or the language
+        this.contentLayout = null;
+
+    }
+
+    @Override
+    public void removed() {
+        super.removed();
+        contentFramebuffer.close();
     }
 
     @Override
@@ -119,8 +125,8 @@ public class OriginDisplayScreen extends Screen {
     @Override
     public void render(DrawContext context, int mouseX, int mouseY, float delta) {
 
-        renderedBadges.clear();
         this.time += delta;
+        OriginIconAtlas.INSTANCE.prepare(context);
 
         super.render(context, mouseX, mouseY, delta);
         this.renderOriginWindow(context, mouseX, mouseY, delta);
@@ -229,21 +235,21 @@ public class OriginDisplayScreen extends Screen {
 
     protected void renderBadgeTooltip(DrawContext context, int mouseX, int mouseY) {
 
-        for (RenderedBadge renderedBadge : renderedBadges) {
-
-            if (canRenderBadgeTooltip(renderedBadge, mouseX, mouseY)) {
-                int widthLimit = width - mouseX - 24;
-                ((DrawContextAccessor) context).invokeDrawTooltip(textRenderer, renderedBadge.getTooltipComponents(textRenderer, widthLimit), mouseX, mouseY, HoveredTooltipPositioner.INSTANCE);
-            }
+        if (contentLayout == null) {
+            return;
+        }
 
+        OriginContentLayout.BadgeEntry badge = contentLayout.getBadgeAt(mouseX - getContentX(), mouseY - getContentY());
+        if (badge != null && canRenderBadgeTooltip(badge)) {
+            int widthLimit = width - mouseX - 24;
+            ((DrawContextAccessor) context).invokeDrawTooltip(textRenderer, BadgeTooltipCache.get(badge.badge(), badge.power(), widthLimit, time, textRenderer), mouseX, mouseY, HoveredTooltipPositioner.INSTANCE);
         }
 
     }
 
-    protected boolean canRenderBadgeTooltip(RenderedBadge renderedBadge, int mouseX, int mouseY) {
-        return renderedBadge.hasTooltip()
-            && (mouseX >= renderedBadge.x && mouseX < renderedBadge.x + 9)
-            && (mouseY >= renderedBadge.y && mouseY < renderedBadge.y + 9);
+    protected boolean canRenderBadgeTooltip(OriginContentLayout.BadgeEntry badge) {
+        return badge.badge().hasTooltip()
+            && (badge.y() >= scrollPos - 34 && badge.y() <= scrollPos + CONTENT_VIEW_HEIGHT + 12);
     }
 
     protected Text getTitleText() {
@@ -315,8 +321,7 @@ public class OriginDisplayScreen extends Screen {
 
         originNameWidget.render(context, mouseX, mouseY, delta);
 
-        ItemStack iconStack = getCurrentOrigin().getDisplayItem();
-        context.drawItem(iconStack, guiLeft + 15, guiTop + 15);
+        OriginIconAtlas.INSTANCE.draw(context, getCurrentOrigin(), guiLeft + 15, guiTop + 15);
 
     }
 
@@ -334,157 +339,53 @@ public class OriginDisplayScreen extends Screen {
 //            textWidth += 12;
 //        }
 
-        int x = guiLeft + 18;
-        int y = guiTop + 50;
-        int startY = y;
-        int endY = y - 72 + WINDOW_HEIGHT;
+        OriginContentLayout layout = this.getContentLayout(textWidthLimit);
 
-        y -= scrollPos;
+        currentMaxScroll = Math.max(0, layout.getHeight() - 14 - (158 - 50));
 
-        Text description = origin == Origin.EMPTY && layer != null && layer.getMissingDescription() != null ? layer.getMissingDescription() : origin.getDescription();
-        for (OrderedText descriptionLine : textRenderer.wrapLines(description, textWidthLimit)) {
+        int x = getContentX();
+        int y = getContentY();
 
-            if (y >= startY - 24 && y <= endY + 12) {
-                context.drawTextWithShadow(textRenderer, descriptionLine, x + 2, y, 0xCCCCCC);
-            }
-
-            y += 12;
+        int minY = scrollPos - 24;
+        int maxY = scrollPos + CONTENT_VIEW_HEIGHT + 12;
 
+        //  Include the rows of the lines and badges that start in view, since those are drawn in full
+        if (contentFramebuffer.draw(context, textRenderer, layout, x, y, scrollPos - 34, maxY + OriginContentLayout.LINE_HEIGHT)) {
+            return;
         }
 
-        y += 12;
-        if (isOriginRandom) {
-
-            for (OrderedText randomOriginLine : textRenderer.wrapLines(randomOriginText, textWidthLimit)) {
-
-                y += 12;
-
-                if (y >= startY - 24 && y <= endY + 12) {
-                    context.drawTextWithShadow(textRenderer, randomOriginLine, x + 2, y, 0xCCCCCC);
-                }
-
-            }
-
-            y += 14;
-
-        } else {
-
-            for (Power power : origin.getPowers()) {
-
-                if (power.isHidden()) {
-                    continue;
-                }
-
-                LinkedList<OrderedText> powerName = new LinkedList<>(textRenderer.wrapLines(power.getName().formatted(Formatting.UNDERLINE), textWidthLimit));
-                int powerNameWidth = textRenderer.getWidth(powerName.getLast());
-
-                for (OrderedText powerNameLine : powerName) {
-
-                    if (y >= startY - 24 && y <= endY + 12) {
-                        context.drawTextWithShadow(textRenderer, powerNameLine, x, y, 0xFFFFFF);
-                    }
-
-                    y += 12;
-
-                }
-
-                y -= 12;
-
-                int badgeStartX = x + powerNameWidth + 4;
-                int badgeEndX = x + 135;
-
-                int badgeOffsetX = 0;
-                int badgeOffsetY = 0;
-
-                for (Power selfOrSubPower : this.getSelfOrSubPowers(power, BadgeManager::hasPowerBadges)) {
-
-                    for (Badge badge : BadgeManager.getPowerBadges(selfOrSubPower.getId())) {
-
-                        int badgeX = badgeStartX + 10 * badgeOffsetX;
-                        int badgeY = (y - 1) + 10 * badgeOffsetY;
-
-                        if (badgeX >= badgeEndX) {
-
-                            badgeOffsetX = 0;
-                            badgeOffsetY++;
-
-                            badgeX = badgeStartX = x;
-                            badgeY = (y - 1) + 10 * badgeOffsetY;
-
-                        }
-
-                        if (badgeY >= startY - 34 && badgeY <= endY + 12) {
-
-                            RenderedBadge renderedBadge = new RenderedBadge(selfOrSubPower, badge, badgeX, badgeY);
-                            renderedBadges.add(renderedBadge);
-
-                            context.drawTexture(badge.spriteId(), renderedBadge.x, renderedBadge.y, -2, 0, 0, 9, 9, 9, 9);
-
-                        }
-
-                        badgeOffsetX++;
-
-                    }
-
-                }
-
-                y += badgeOffsetY * 10;
-                for (OrderedText powerDescriptionLine : textRenderer.wrapLines(power.getDescription(), textWidthLimit)) {
-
-                    y += 12;
-
-                    if (y >= startY - 24 && y <= endY + 12) {
-                        context.drawTextWithShadow(textRenderer, powerDescriptionLine, x + 2, y, 0xCCCCCC);
-                    }
-
-                }
-
-                y += 20;
-
-            }
-
+        for (OriginContentLayout.Line line : layout.getLines(minY, maxY)) {
+            context.drawTextWithShadow(textRenderer, line.text(), x + line.x(), y + line.y(), line.color());
         }
 
-        y += scrollPos;
-        currentMaxScroll = Math.max(0, y - 14 - (guiTop + 158));
+        BadgeSpriteAtlas.INSTANCE.drawBadges(context, getVisibleBadges(layout), x, y, -2);
 
     }
 
-    protected final Collection<? extends Power> getSelfOrSubPowers(Power power, Predicate<Power> selfPredicate) {
+    /**
+     *  @return the layout of the content of the current origin, which is only rebuilt once the origin, the layer, the width
+     *  or the language change
+     */
+    protected OriginContentLayout getContentLayout(int widthLimit) {
 
-        if (!selfPredicate.test(power) && power instanceof MultiplePower multiplePower) {
-            return multiplePower.getSubPowers();
+        if (contentLayout == null || !contentLayout.matches(origin, layer, randomOriginText, isOriginRandom, widthLimit)) {
+            contentLayout = OriginContentLayout.build(textRenderer, origin, layer, randomOriginText, isOriginRandom, widthLimit);
         }
 
-        else {
-            return Set.of(power);
-        }
+        return contentLayout;
 
     }
 
-    protected class RenderedBadge {
-
-        private final Power power;
-        private final Badge badge;
-
-        private final int x;
-        private final int y;
-
-        public RenderedBadge(Power power, Badge badge, int x, int y) {
-            this.power = power;
-            this.badge = badge;
-            this.x = x;
-            this.y = y;
-        }
-
-        public List<TooltipComponent> getTooltipComponents(TextRenderer textRenderer, int widthLimit) {
-            return badge.getTooltipComponents(power, widthLimit, OriginDisplayScreen.this.time, textRenderer);
-        }
+    protected List<OriginContentLayout.BadgeEntry> getVisibleBadges(OriginContentLayout layout) {
+        return layout.getBadges(scrollPos - 34, scrollPos + CONTENT_VIEW_HEIGHT + 12);
+    }
 
-        public boolean hasTooltip() {
-            return badge.hasTooltip();
-        }
+    protected int getContentX() {
+        return guiLeft + 18;
+    }
 
+    protected int getContentY() {
+        return guiTop + 50 - scrollPos;
     }
 
 }
@@ -0,0 +1,326 @@
+package io.github.apace100.origins.screen;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.systems.VertexSorter;
+import io.github.apace100.origins.Origins;
+import io.github.apace100.origins.origin.Origin;
+import io.github.apace100.origins.origin.OriginManager;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.Framebuffer;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.SkinTextures;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.ProfileComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL11;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ *  Renders the icons of all origins once into a grid in an off-screen framebuffer, so that the origin screens can draw
+ *  an icon by copying its cell instead of rendering the item model every frame. The icons are rendered again once the
+ *  origins are received or reloaded, the GUI scale changes or client resources are {@linkplain #reload(ResourceManager) reloaded}, which
+ *  may have changed the models or textures of the icons.
+ *
+ *  <p>Icons that depend on the player (player heads without a profile, which show the skin of the player) or that are
+ *  animated are rendered again every {@link #REFRESH_INTERVAL} milliseconds, and once the skin of the player changes.</p>
+ */
+public class OriginIconAtlas implements AutoCloseable, SimpleSynchronousResourceReloadListener {
+
+    public static final Identifier ID = Origins.identifier("origin_icons");
+
+    public static final OriginIconAtlas INSTANCE = new OriginIconAtlas();
+
+    public static final int ICON_SIZE = 16;
+
+    private static final int COLUMNS = 16;
+    private static final long REFRESH_INTERVAL = 1000L;
+
+    private final Object2IntOpenHashMap<Origin> cellsByOrigin = Util.make(new Object2IntOpenHashMap<>(), map -> map.defaultReturnValue(-1));
+    private final List<Origin> dynamicOrigins = new ArrayList<>();
+
+    @Nullable
+    private Framebuffer framebuffer;
+    @Nullable
+    private SkinTextures renderedSkin;
+
+    private int renderedVersion = -1;
+    private double renderedScale;
+    private long lastRefreshTime;
+
+    private int columns;
+    private int rows;
+
+    private OriginIconAtlas() {
+
+    }
+
+    @Override
+    public Identifier getFabricId() {
+        return ID;
+    }
+
+    @Override
+    public void reload(ResourceManager manager) {
+        this.invalidate();
+    }
+
+    /**
+     *  Makes the icons be rendered again the next time they're {@linkplain #prepare(DrawContext) prepared}.
+     */
+    public void invalidate() {
+        this.renderedVersion = -1;
+    }
+
+    /**
+     *  Renders the icons that are out of date. Must be called before any icon is drawn in a frame, outside of any scissor
+     *  area, since the icons are rendered into the framebuffer with the same vertex consumers.
+     */
+    public void prepare(DrawContext context) {
+
+        MinecraftClient client = MinecraftClient.getInstance();
+        double scale = client.getWindow().getScaleFactor();
+
+        if (renderedVersion != OriginManager.getVersion() || scale != renderedScale) {
+            this.build(context, scale);
+            return;
+        }
+
+        if (framebuffer == null || dynamicOrigins.isEmpty()) {
+            return;
+        }
+
+        SkinTextures skin = getSkin();
+        if (!Objects.equals(skin, renderedSkin) || Util.getMeasuringTimeMs() - lastRefreshTime >= REFRESH_INTERVAL) {
+            this.render(context, dynamicOrigins, false);
+        }
+
+    }
+
+    /**
+     *  Draws the icon of the origin, rendering it directly if it's not part of the atlas.
+     */
+    public void draw(DrawContext context, Origin origin, int x, int y) {
+
+        int cell = cellsByOrigin.getInt(origin);
+        if (framebuffer == null || cell < 0) {
+            context.drawItem(getIconStack(origin), x, y);
+            return;
+        }
+
+        //  Textures of framebuffers are upside down, so V = 1 is the top of the atlas
+        float minU = (float) (cell % columns) / columns;
+        float maxU = minU + 1.0F / columns;
+        float minV = 1.0F - (float) (cell / columns) / rows;
+        float maxV = minV - 1.0F / rows;
+
+        Matrix4f matrix = context.getMatrices().peek().getPositionMatrix();
+
+        RenderSystem.setShaderTexture(0, framebuffer.getColorAttachment());
+        RenderSystem.setShader(GameRenderer::getPositionTexProgram);
+        RenderSystem.enableBlend();
+        RenderSystem.blendFunc(GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        BufferBuilder bufferBuilder = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+        bufferBuilder.vertex(matrix, x, y, 0.0F).texture(minU, minV);
+        bufferBuilder.vertex(matrix, x, y + ICON_SIZE, 0.0F).texture(minU, maxV);
+        bufferBuilder.vertex(matrix, x + ICON_SIZE, y + ICON_SIZE, 0.0F).texture(maxU, maxV);
+        bufferBuilder.vertex(matrix, x + ICON_SIZE, y, 0.0F).texture(maxU, minV);
+        BufferRenderer.drawWithGlobalProgram(bufferBuilder.end());
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+
+    }
+
+    @Override
+    public void close() {
+
+        if (framebuffer != null) {
+            framebuffer.delete();
+        }
+
+        this.framebuffer = null;
+        this.cellsByOrigin.clear();
+        this.dynamicOrigins.clear();
+
+    }
+
+    private void build(DrawContext context, double scale) {
+
+        this.renderedVersion = OriginManager.getVersion();
+        this.renderedScale = scale;
+
+        cellsByOrigin.clear();
+        dynamicOrigins.clear();
+
+        List<Origin> origins = new ArrayList<>(OriginManager.values());
+        origins.sort(Comparator.comparing(Origin::getId));
+
+        if (origins.isEmpty()) {
+            this.close();
+            return;
+        }
+
+        this.columns = Math.min(COLUMNS, origins.size());
+        this.rows = MathHelper.ceilDiv(origins.size(), columns);
+
+        int cellSize = MathHelper.ceil(ICON_SIZE * scale);
+        int textureWidth = columns * cellSize;
+        int textureHeight = rows * cellSize;
+
+        int maxTextureSize = RenderSystem.maxSupportedTextureSize();
+        if (textureWidth > maxTextureSize || textureHeight > maxTextureSize) {
+            this.close();
+            return;
+        }
+
+        if (framebuffer == null) {
+            this.framebuffer = new SimpleFramebuffer(textureWidth, textureHeight, true, MinecraftClient.IS_SYSTEM_MAC);
+        }
+
+        else if (framebuffer.textureWidth != textureWidth || framebuffer.textureHeight != textureHeight) {
+            framebuffer.resize(textureWidth, textureHeight, MinecraftClient.IS_SYSTEM_MAC);
+        }
+
+        for (int cell = 0; cell < origins.size(); cell++) {
+
+            Origin origin = origins.get(cell);
+            cellsByOrigin.put(origin, cell);
+
+            if (isDynamic(origin.getDisplayItem())) {
+                dynamicOrigins.add(origin);
+            }
+
+        }
+
+        this.render(context, origins, true);
+
+    }
+
+    /**
+     *  Renders the icons of the specified origins into their cells, clearing either the whole framebuffer or only the cells
+     *  of the origins first.
+     */
+    private void render(DrawContext context, List<Origin> origins, boolean clearAll) {
+
+        if (framebuffer == null) {
+            return;
+        }
+
+        MinecraftClient client = MinecraftClient.getInstance();
+
+        //  Flush whatever the screen batched so far, since the icons are drawn with the same vertex consumers
+        context.draw();
+
+        if (clearAll) {
+            framebuffer.setClearColor(0.0F, 0.0F, 0.0F, 0.0F);
+            framebuffer.clear(MinecraftClient.IS_SYSTEM_MAC);
+            framebuffer.beginWrite(true);
+        }
+
+        else {
+
+            framebuffer.beginWrite(true);
+            RenderSystem.clearColor(0.0F, 0.0F, 0.0F, 0.0F);
+
+            int cellSize = framebuffer.textureWidth / columns;
+            GlStateManager._enableScissorTest();
+
+            for (Origin origin : origins) {
+
+                int cell = cellsByOrigin.getInt(origin);
+
+                //  The scissor box starts at the bottom left corner of the framebuffer
+                GlStateManager._scissorBox((cell % columns) * cellSize, framebuffer.textureHeight - (cell / columns + 1) * cellSize, cellSize, cellSize);
+                RenderSystem.clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT, MinecraftClient.IS_SYSTEM_MAC);
+
+            }
+
+            GlStateManager._disableScissorTest();
+
+        }
+
+        Matrix4f previousProjection = RenderSystem.getProjectionMatrix();
+        VertexSorter previousVertexSorting = RenderSystem.getVertexSorting();
+
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(0.0F, columns * ICON_SIZE, rows * ICON_SIZE, 0.0F, 1000.0F, 21000.0F), VertexSorter.BY_Z);
+
+        DrawContext framebufferContext = new DrawContext(client, client.getBufferBuilders().getEntityVertexConsumers());
+        for (Origin origin : origins) {
+            int cell = cellsByOrigin.getInt(origin);
+            framebufferContext.drawItem(getIconStack(origin), (cell % columns) * ICON_SIZE, (cell / columns) * ICON_SIZE);
+        }
+
+        framebufferContext.draw();
+
+        RenderSystem.setProjectionMatrix(previousProjection, previousVertexSorting);
+        client.getFramebuffer().beginWrite(true);
+
+        this.renderedSkin = getSkin();
+        this.lastRefreshTime = Util.getMeasuringTimeMs();
+
+    }
+
+    /**
+     *  @return the icon of the origin; a copy with the profile of the player if the icon is a player head without a
+     *  profile, so that the icon of the origin itself is left as is
+     */
+    private static ItemStack getIconStack(Origin origin) {
+
+        ItemStack iconStack = origin.getDisplayItem();
+        ClientPlayerEntity player = MinecraftClient.getInstance().player;
+
+        if (player != null && isPlayerHead(iconStack)) {
+            iconStack = iconStack.copy();
+            iconStack.set(DataComponentTypes.PROFILE, new ProfileComponent(player.getGameProfile()));
+        }
+
+        return iconStack;
+
+    }
+
+    private static boolean isDynamic(ItemStack iconStack) {
+        return isPlayerHead(iconStack)
+            || iconStack.hasGlint()
+            || iconStack.isOf(Items.COMPASS)
+            || iconStack.isOf(Items.RECOVERY_COMPASS)
+            || iconStack.isOf(Items.CLOCK);
+    }
+
+    private static boolean isPlayerHead(ItemStack iconStack) {
+        return iconStack.isOf(Items.PLAYER_HEAD) && !iconStack.contains(DataComponentTypes.PROFILE);
+    }
+
+    @Nullable
+    private static SkinTextures getSkin() {
+
+        ClientPlayerEntity player = MinecraftClient.getInstance().player;
+        return player != null
+            ? player.getSkinTextures()
+            : null;
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package io.github.apace100.origins.screen;
+
+import io.github.apace100.origins.origin.Origin;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.widget.AlwaysSelectedEntryListWidget;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Language;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ *  A scrollable list of origins, showing the icon and name of every origin. Like any entry list, only the rows that are
+ *  in view are rendered, so it stays fast for layers with hundreds of origins.
+ */
+public class OriginListWidget extends AlwaysSelectedEntryListWidget<OriginListWidget.Entry> {
+
+    public static final int ENTRY_HEIGHT = 20;
+
+    private final Consumer<Origin> selectionCallback;
+
+    public OriginListWidget(MinecraftClient client, int x, int y, int width, int height, Consumer<Origin> selectionCallback) {
+        super(client, width, height, y, ENTRY_HEIGHT);
+        this.setX(x);
+        this.selectionCallback = selectionCallback;
+    }
+
+    /**
+     *  Replaces the origins of the list, and selects the specified origin if it's part of the list.
+     */
+    public void setOrigins(List<Origin> origins, @Nullable Origin selectedOrigin) {
+
+        this.replaceEntries(origins.stream().map(Entry::new).toList());
+        this.setSelectedOrigin(selectedOrigin);
+
+    }
+
+    /**
+     *  Selects the specified origin without notifying the selection callback, and scrolls to it.
+     */
+    public void setSelectedOrigin(@Nullable Origin origin) {
+
+        Entry selectedEntry = this.children()
+            .stream()
+            .filter(entry -> entry.origin == origin)
+            .findFirst()
+            .orElse(null);
+
+        this.setSelected(selectedEntry);
+        if (selectedEntry != null) {
+            this.ensureVisible(selectedEntry);
+        }
+
+    }
+
+    @Override
+    public int getRowWidth() {
+        return this.getWidth() - 12;
+    }
+
+    @Override
+    protected int getScrollbarX() {
+        return this.getRight() - 6;
+    }
+
+    public class Entry extends AlwaysSelectedEntryListWidget.Entry<Entry> {
+
+        private final Origin origin;
+
+        public Entry(Origin origin) {
+            this.origin = origin;
+        }
+
+        @Override
+        public Text getNarration() {
+            return Text.translatable("narrator.select", origin.getName());
+        }
+
+        @Override
+        public void render(DrawContext context, int index, int y, int x, int entryWidth, int entryHeight, int mouseX, int mouseY, boolean hovered, float tickDelta) {
+
+            OriginIconAtlas.INSTANCE.draw(context, origin, x + 1, y + 1);
+            OrderedText name = Language.getInstance().reorder(client.textRenderer.trimToWidth(origin.getName(), entryWidth - 24));
+            context.drawTextWithShadow(client.textRenderer, name, x + 22, y + (entryHeight - 8) / 2, 0xFFFFFF);
+
+        }
+
+        @Override
+        public boolean mouseClicked(double mouseX, double mouseY, int button) {
+
+            OriginListWidget.this.setSelected(this);
+            selectionCallback.accept(origin);
+
+            return true;
+
+        }
+
+    }
+
+}
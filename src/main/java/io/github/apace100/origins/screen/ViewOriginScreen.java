@@ -3,54 +3,81 @@ package io.github.apace100.origins.screen;
 import com.google.common.collect.Lists;
 import io.github.apace100.origins.Origins;
 import io.github.apace100.origins.OriginsClient;
+import io.github.apace100.origins.networking.packet.c2s.RequestOriginOptionsC2SPacket;
 import io.github.apace100.origins.origin.Origin;
 import io.github.apace100.origins.origin.OriginLayer;
+import io.github.apace100.origins.origin.OriginOptions;
 import io.github.apace100.origins.registry.ModComponents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.widget.ButtonWidget;
-import net.minecraft.component.DataComponentTypes;
-import net.minecraft.component.type.ProfileComponent;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.item.ItemStack;
-import net.minecraft.item.Items;
 import net.minecraft.text.Text;
 import net.minecraft.util.Pair;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Map;
 
 public class ViewOriginScreen extends OriginDisplayScreen {
 
-	private final ArrayList<Pair<OriginLayer, Origin>> originLayers;
+	private final ArrayList<Pair<OriginLayer, Origin>> originLayers = new ArrayList<>(5);
 	private ButtonWidget chooseOriginButton;
 
+	private OriginOptions options = OriginsClient.originOptions;
 	private int currentLayerIndex = 0;
 
 	public ViewOriginScreen() {
 		super(Text.translatable(Origins.MODID + ".screen.view_origin"), false);
 
-		PlayerEntity player = MinecraftClient.getInstance().player;
-		if (player == null) {
-			originLayers = new ArrayList<>(5);
-			return;
+		collectOriginLayers();
+
+		//	The options may have changed since they were last received, so the layers are collected again once the server
+		//	sent the current ones
+		if (OriginsClient.isServerRunningOrigins && ClientPlayNetworking.canSend(RequestOriginOptionsC2SPacket.PACKET_ID)) {
+			ClientPlayNetworking.send(RequestOriginOptionsC2SPacket.INSTANCE);
 		}
 
-		Map<OriginLayer, Origin> origins = ModComponents.ORIGIN.get(player).getOrigins();
-		originLayers = new ArrayList<>(origins.size());
+	}
+
+	/**
+	 *	Shows the layers again with the specified options, keeping the current layer selected if it's still shown.
+	 */
+	public void updateOptions(OriginOptions options) {
 
-		origins.forEach((layer, origin) -> {
+		OriginLayer currentLayer = originLayers.isEmpty() ? null : getCurrentLayer();
 
-			ItemStack iconStack = origin.getDisplayItem();
-			if (iconStack.isOf(Items.PLAYER_HEAD) && !iconStack.contains(DataComponentTypes.PROFILE)) {
-				iconStack.set(DataComponentTypes.PROFILE, new ProfileComponent(player.getGameProfile()));
+		this.options = options;
+		collectOriginLayers();
+
+		for (int index = 0; index < originLayers.size(); index++) {
+			if (originLayers.get(index).getLeft().equals(currentLayer)) {
+				currentLayerIndex = index;
+				showOrigin(getCurrentOrigin(), getCurrentLayer(), false);
+				break;
 			}
+		}
 
-			if (!layer.isHidden() && (origin != Origin.EMPTY || layer.getOriginOptionCount(player) > 0)) {
+		if (client != null) {
+			clearAndInit();
+		}
+
+	}
+
+	private void collectOriginLayers() {
+
+		originLayers.clear();
+		currentLayerIndex = 0;
+
+		PlayerEntity player = MinecraftClient.getInstance().player;
+		if (player == null) {
+			return;
+		}
+
+		ModComponents.ORIGIN.get(player).getOrigins().forEach((layer, origin) -> {
+			if (!layer.isHidden() && (origin != Origin.EMPTY || options.get(layer).optionCount() > 0)) {
 				originLayers.add(new Pair<>(layer, origin));
 			}
-
 		});
 
 		originLayers.sort(Comparator.comparing(Pair::getLeft));
@@ -80,11 +107,10 @@ public class ViewOriginScreen extends OriginDisplayScreen {
 
 		addDrawableChild(chooseOriginButton = ButtonWidget.builder(
 			Text.translatable(Origins.MODID + ".gui.choose"),
-			button -> client.setScreen(new ChooseOriginScreen(Lists.newArrayList(getCurrentLayer()), 0, false))
+			button -> client.setScreen(new ChooseOriginScreen(Lists.newArrayList(getCurrentLayer()), 0, false, options))
 		).dimensions(guiLeft + WINDOW_WIDTH / 2 - 50, guiTop + WINDOW_HEIGHT - 40, 100, 20).build());
 
-		PlayerEntity player = client.player;
-		chooseOriginButton.active = chooseOriginButton.visible = getCurrentOrigin() == Origin.EMPTY && getCurrentLayer().getOriginOptionCount(player) > 0;
+		updateChooseOriginButton();
 
 		if (originLayers.size() <= 1) {
 			return;
@@ -98,7 +124,7 @@ public class ViewOriginScreen extends OriginDisplayScreen {
 				currentLayerIndex = (currentLayerIndex - 1 + originLayers.size()) % originLayers.size();
 				showOrigin(getCurrentOrigin(), getCurrentLayer(), false);
 
-				chooseOriginButton.active = chooseOriginButton.visible = getCurrentOrigin() == Origin.EMPTY && getCurrentLayer().getOriginOptionCount(player) > 0;
+				updateChooseOriginButton();
 
 			}
 		).dimensions(guiLeft - 40, height / 2 - 10, 20, 20).build());
@@ -111,13 +137,17 @@ public class ViewOriginScreen extends OriginDisplayScreen {
 				currentLayerIndex = (currentLayerIndex + 1) % originLayers.size();
 				showOrigin(getCurrentOrigin(), getCurrentLayer(), false);
 
-				chooseOriginButton.active = chooseOriginButton.visible = getCurrentOrigin() == Origin.EMPTY && getCurrentLayer().getOriginOptionCount(player) > 0;
+				updateChooseOriginButton();
 
 			}
 		).dimensions(guiLeft + WINDOW_WIDTH + 20, height / 2 - 10, 20, 20).build());
 
 	}
 
+	private void updateChooseOriginButton() {
+		chooseOriginButton.active = chooseOriginButton.visible = getCurrentOrigin() == Origin.EMPTY && options.get(getCurrentLayer()).optionCount() > 0;
+	}
+
 	@Override
 	public OriginLayer getCurrentLayer() {
 		return originLayers.get(currentLayerIndex).getLeft();
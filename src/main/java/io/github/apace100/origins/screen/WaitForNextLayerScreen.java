@@ -2,11 +2,11 @@ package io.github.apace100.origins.screen;
 
 import io.github.apace100.origins.component.OriginComponent;
 import io.github.apace100.origins.origin.OriginLayer;
+import io.github.apace100.origins.origin.OriginOptions;
 import io.github.apace100.origins.registry.ModComponents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.text.Text;
 
 import java.util.ArrayList;
@@ -17,19 +17,27 @@ public class WaitForNextLayerScreen extends Screen {
     private final List<OriginLayer> layerList;
     private final int currentLayerIndex;
     private final boolean showDirtBackground;
+    private final OriginOptions options;
     private final int maxSelection;
 
-    protected WaitForNextLayerScreen(List<OriginLayer> layerList, int currentLayerIndex, boolean showDirtBackground) {
+    protected WaitForNextLayerScreen(List<OriginLayer> layerList, int currentLayerIndex, boolean showDirtBackground, OriginOptions options) {
         super(Text.empty());
         this.layerList = layerList;
         this.currentLayerIndex = currentLayerIndex;
         this.showDirtBackground = showDirtBackground;
-        PlayerEntity player = MinecraftClient.getInstance().player;
-        OriginLayer currentLayer = layerList.get(currentLayerIndex);
-        maxSelection = currentLayer.getOriginOptionCount(player);
+        this.options = options;
+        this.maxSelection = options.get(layerList.get(currentLayerIndex)).optionCount();
     }
 
     public void openSelection() {
+        openSelection(options);
+    }
+
+    /**
+     *  Opens the screen for choosing an origin in the next layer that the player doesn't have an origin in yet, using the
+     *  specified options, e.g. the ones the server sent after confirming the origin chosen in the current layer.
+     */
+    public void openSelection(OriginOptions options) {
 
         MinecraftClient client = MinecraftClient.getInstance();
         if (client.player != null) {
@@ -41,8 +49,8 @@ public class WaitForNextLayerScreen extends Screen {
 
                 layer = layerList.get(index);
 
-                if (!component.hasOrigin(layer) && !layer.getOrigins(client.player).isEmpty()) {
-                    client.setScreen(new ChooseOriginScreen(layerList, index, showDirtBackground));
+                if (!component.hasOrigin(layer) && !options.get(layer).origins().isEmpty()) {
+                    client.setScreen(new ChooseOriginScreen(layerList, index, showDirtBackground, options));
                     return;
                 }
 
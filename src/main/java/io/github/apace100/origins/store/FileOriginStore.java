@@ -0,0 +1,314 @@
+package io.github.apace100.origins.store;
+
+import io.github.apace100.origins.Origins;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  An embedded, file-backed {@link OriginStore}. Rows are kept in memory together with an index by origin, and
+ *  every change is appended to a log file in the world save. Writes are batched and performed by a background thread;
+ *  the log is compacted into a snapshot of the current rows when the store is opened and closed.
+ */
+public class FileOriginStore implements OriginStore {
+
+    private static final int MAGIC = 0x4F524753;
+    private static final int VERSION = 1;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final Map<UUID, Map<Identifier, Identifier>> rows = new ConcurrentHashMap<>();
+    private final Map<Identifier, Set<UUID>> playersByOrigin = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<Entry> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService writer;
+
+    private final Path logPath;
+    private DataOutputStream logStream;
+
+    public FileOriginStore(MinecraftServer server) throws IOException {
+        this(server.getSavePath(WorldSavePath.ROOT).resolve("data").resolve(Origins.MODID + "_store.dat"));
+    }
+
+    public FileOriginStore(Path logPath) throws IOException {
+
+        this.logPath = logPath;
+        Files.createDirectories(logPath.getParent());
+
+        this.load();
+        this.compact();
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+
+            Thread thread = new Thread(runnable, "Origins Store Writer");
+            thread.setDaemon(true);
+
+            return thread;
+
+        });
+
+        this.writer.scheduleWithFixedDelay(this::writePending, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+    }
+
+    @Override
+    public void put(UUID playerUuid, Identifier layerId, Identifier originId) {
+        if (apply(playerUuid, layerId, originId)) {
+            pendingEntries.add(new Entry(playerUuid, layerId, originId));
+        }
+    }
+
+    @Override
+    public void remove(UUID playerUuid, Identifier layerId) {
+        if (apply(playerUuid, layerId, null)) {
+            pendingEntries.add(new Entry(playerUuid, layerId, null));
+        }
+    }
+
+    @Override
+    public Map<Identifier, Identifier> getOrigins(UUID playerUuid) {
+        Map<Identifier, Identifier> origins = rows.get(playerUuid);
+        return origins != null ? Collections.unmodifiableMap(origins) : Map.of();
+    }
+
+    /**
+     *  The rows are kept in concurrent maps, so they can be read from any thread.
+     */
+    @Override
+    public boolean supportsAsyncReads() {
+        return true;
+    }
+
+    @Override
+    public Set<UUID> getPlayersWithOrigin(Identifier originId) {
+        Set<UUID> playerUuids = playersByOrigin.get(originId);
+        return playerUuids != null ? Collections.unmodifiableSet(playerUuids) : Set.of();
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.submit(this::writePending).get();
+        } catch (Exception e) {
+            Origins.LOGGER.error("Failed to flush origin store \"{}\": {}", logPath, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+
+        writer.shutdown();
+
+        try {
+
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                Origins.LOGGER.warn("Origin store writer did not finish in time; writing remaining changes on the current thread");
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        writePending();
+
+        try {
+            closeLog();
+            compact();
+        } catch (IOException e) {
+            Origins.LOGGER.error("Failed to compact origin store \"{}\": {}", logPath, e.getMessage());
+        }
+
+    }
+
+    /**
+     *  Applies a change to the in-memory rows and the origin index.
+     *
+     *  @return {@code true} if the change modified the rows
+     */
+    private boolean apply(UUID playerUuid, Identifier layerId, Identifier originId) {
+
+        Map<Identifier, Identifier> origins = rows.computeIfAbsent(playerUuid, k -> new ConcurrentHashMap<>());
+        Identifier oldOriginId = originId != null
+            ? origins.put(layerId, originId)
+            : origins.remove(layerId);
+
+        if (oldOriginId != null ? oldOriginId.equals(originId) : originId == null) {
+            return false;
+        }
+
+        if (oldOriginId != null && !origins.containsValue(oldOriginId)) {
+            playersByOrigin.computeIfPresent(oldOriginId, (id, playerUuids) -> {
+                playerUuids.remove(playerUuid);
+                return playerUuids.isEmpty() ? null : playerUuids;
+            });
+        }
+
+        if (originId != null) {
+            playersByOrigin.computeIfAbsent(originId, k -> ConcurrentHashMap.newKeySet()).add(playerUuid);
+        }
+
+        if (origins.isEmpty()) {
+            rows.remove(playerUuid, origins);
+        }
+
+        return true;
+
+    }
+
+    private synchronized void writePending() {
+
+        if (pendingEntries.isEmpty()) {
+            return;
+        }
+
+        List<Entry> batch = new ArrayList<>();
+        Entry entry;
+
+        while ((entry = pendingEntries.poll()) != null) {
+            batch.add(entry);
+        }
+
+        try {
+
+            DataOutputStream stream = openLog();
+            for (Entry pendingEntry : batch) {
+                pendingEntry.write(stream);
+            }
+
+            stream.flush();
+
+        } catch (IOException e) {
+            Origins.LOGGER.error("Failed to write {} change(s) to origin store \"{}\": {}", batch.size(), logPath, e.getMessage());
+        }
+
+    }
+
+    private void load() throws IOException {
+
+        if (!Files.exists(logPath)) {
+            return;
+        }
+
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath)))) {
+
+            if (stream.readInt() != MAGIC || stream.readInt() != VERSION) {
+                throw new IOException("Unrecognized origin store format");
+            }
+
+            while (true) {
+
+                Entry entry;
+                try {
+                    entry = Entry.read(stream);
+                } catch (EOFException e) {
+                    //  Either the end of the log, or a partially written trailing entry
+                    break;
+                }
+
+                apply(entry.playerUuid(), entry.layerId(), entry.originId());
+
+            }
+
+        }
+
+    }
+
+    /**
+     *  Rewrites the log so that it only contains the current rows.
+     */
+    private synchronized void compact() throws IOException {
+
+        Path tempPath = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+
+            for (Map.Entry<UUID, Map<Identifier, Identifier>> row : rows.entrySet()) {
+                for (Map.Entry<Identifier, Identifier> origin : row.getValue().entrySet()) {
+                    new Entry(row.getKey(), origin.getKey(), origin.getValue()).write(stream);
+                }
+            }
+
+        }
+
+        Files.move(tempPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    }
+
+    private DataOutputStream openLog() throws IOException {
+
+        if (logStream == null) {
+            logStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logPath, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        }
+
+        return logStream;
+
+    }
+
+    private void closeLog() throws IOException {
+
+        if (logStream != null) {
+            logStream.close();
+            logStream = null;
+        }
+
+    }
+
+    private record Entry(UUID playerUuid, Identifier layerId, Identifier originId) {
+
+        public void write(DataOutputStream stream) throws IOException {
+
+            stream.writeByte(originId != null ? PUT : REMOVE);
+            stream.writeLong(playerUuid.getMostSignificantBits());
+            stream.writeLong(playerUuid.getLeastSignificantBits());
+            stream.writeUTF(layerId.toString());
+
+            if (originId != null) {
+                stream.writeUTF(originId.toString());
+            }
+
+        }
+
+        public static Entry read(DataInputStream stream) throws IOException {
+
+            byte type = stream.readByte();
+            UUID playerUuid = new UUID(stream.readLong(), stream.readLong());
+            Identifier layerId = Identifier.of(stream.readUTF());
+
+            return switch (type) {
+                case PUT -> new Entry(playerUuid, layerId, Identifier.of(stream.readUTF()));
+                case REMOVE -> new Entry(playerUuid, layerId, null);
+                default -> throw new IOException("Unknown origin store entry type " + type);
+            };
+
+        }
+
+    }
+
+}
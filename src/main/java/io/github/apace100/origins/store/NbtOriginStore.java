@@ -0,0 +1,68 @@
+package io.github.apace100.origins.store;
+
+import io.github.apace100.origins.component.OriginComponent;
+import io.github.apace100.origins.registry.ModComponents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ *  The default {@link OriginStore}, which relies on the NBT of the origin component only. Since player data is not
+ *  loaded for offline players, queries can only see the players that are currently online.
+ */
+public class NbtOriginStore implements OriginStore {
+
+    private final MinecraftServer server;
+
+    public NbtOriginStore(MinecraftServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void put(UUID playerUuid, Identifier layerId, Identifier originId) {
+        //  The origin is already written to the NBT of the player by the origin component
+    }
+
+    @Override
+    public void remove(UUID playerUuid, Identifier layerId) {
+
+    }
+
+    @Override
+    public Map<Identifier, Identifier> getOrigins(UUID playerUuid) {
+
+        Map<Identifier, Identifier> origins = new HashMap<>();
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerUuid);
+
+        if (player != null) {
+            ModComponents.ORIGIN.get(player).getOrigins().forEach((layer, origin) -> origins.put(layer.getId(), origin.getId()));
+        }
+
+        return origins;
+
+    }
+
+    @Override
+    public Set<UUID> getPlayersWithOrigin(Identifier originId) {
+
+        Set<UUID> playerUuids = new HashSet<>();
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+
+            OriginComponent component = ModComponents.ORIGIN.get(player);
+            if (component.getOrigins().values().stream().anyMatch(origin -> origin.getId().equals(originId))) {
+                playerUuids.add(player.getUuid());
+            }
+
+        }
+
+        return playerUuids;
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package io.github.apace100.origins.store;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ *  A persistence backend for the origins of players, keyed by {@code (player UUID, layer)}. The origin component
+ *  remains the authoritative source for online players; a store additionally allows cross-player queries without
+ *  loading player data. Implementations are registered in {@link OriginStores} and selected through the
+ *  {@code originStore} server config option.
+ */
+public interface OriginStore {
+
+    /**
+     *  Records that the specified player has the specified origin in the specified layer. Called on the server thread;
+     *  implementations must not block it.
+     */
+    void put(UUID playerUuid, Identifier layerId, Identifier originId);
+
+    /**
+     *  Removes the origin of the specified player in the specified layer. Called on the server thread; implementations
+     *  must not block it.
+     */
+    void remove(UUID playerUuid, Identifier layerId);
+
+    /**
+     *  @return the origins of the specified player, keyed by layer ID
+     */
+    Map<Identifier, Identifier> getOrigins(UUID playerUuid);
+
+    /**
+     *  @return the UUIDs of the players that have the specified origin in any layer
+     */
+    Set<UUID> getPlayersWithOrigin(Identifier originId);
+
+    /**
+     *  @return whether {@link #getOrigins(UUID)} may be called off the server thread, e.g. to compute which rows differ
+     *  from the origins of a player without blocking the server thread
+     */
+    default boolean supportsAsyncReads() {
+        return false;
+    }
+
+    /**
+     *  Writes any pending changes to the backing storage.
+     */
+    default void flush() {
+
+    }
+
+    /**
+     *  Flushes any pending changes and releases the resources held by this store. The store is not used afterward.
+     */
+    default void close() {
+
+    }
+
+    @FunctionalInterface
+    interface Factory {
+        OriginStore create(MinecraftServer server) throws Exception;
+    }
+
+}
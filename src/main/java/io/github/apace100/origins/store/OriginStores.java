@@ -0,0 +1,71 @@
+package io.github.apace100.origins.store;
+
+import io.github.apace100.origins.Origins;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class OriginStores {
+
+    private static final Map<Identifier, OriginStore.Factory> FACTORIES = new HashMap<>();
+
+    public static final Identifier NBT = register(Origins.identifier("nbt"), NbtOriginStore::new);
+    public static final Identifier FILE = register(Origins.identifier("file"), FileOriginStore::new);
+
+    @Nullable
+    private static OriginStore current;
+
+    /**
+     *  Registers an origin store implementation, which can then be selected with the {@code originStore} server config
+     *  option. This allows, for example, a store shared by all servers behind a proxy.
+     */
+    public static Identifier register(Identifier id, OriginStore.Factory factory) {
+
+        if (FACTORIES.putIfAbsent(id, factory) != null) {
+            throw new IllegalArgumentException("Origin store \"" + id + "\" is already registered!");
+        }
+
+        return id;
+
+    }
+
+    /**
+     *  @return the origin store of the running server, or {@code null} if no server is running
+     */
+    @Nullable
+    public static OriginStore get() {
+        return current;
+    }
+
+    public static void open(MinecraftServer server) {
+
+        Identifier id = Identifier.tryParse(Origins.config.originStore);
+        OriginStore.Factory factory = id != null ? FACTORIES.get(id) : null;
+
+        if (factory == null) {
+            Origins.LOGGER.error("Unknown origin store \"{}\" specified in the config; falling back to \"{}\"", Origins.config.originStore, NBT);
+            factory = FACTORIES.get(NBT);
+        }
+
+        try {
+            current = factory.create(server);
+        } catch (Exception e) {
+            Origins.LOGGER.error("Failed to open origin store \"{}\"; falling back to \"{}\": {}", id, NBT, e.getMessage());
+            current = new NbtOriginStore(server);
+        }
+
+    }
+
+    public static void close(MinecraftServer server) {
+
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package io.github.apace100.origins.util;
+
+import net.minecraft.util.math.random.Random;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  A table for sampling weighted values in constant time, built with Vose's alias method. Sampling doesn't allocate.
+ */
+public final class AliasTable<T> {
+
+    private static final AliasTable<?> EMPTY = new AliasTable<>(new Object[0], new double[0], new int[0]);
+
+    private final Object[] values;
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    private AliasTable(Object[] values, double[] probabilities, int[] aliases) {
+        this.values = values;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> AliasTable<T> empty() {
+        return (AliasTable<T>) EMPTY;
+    }
+
+    /**
+     *  Builds a table of the specified values. Values with a weight that is not positive are left out.
+     */
+    public static <T> AliasTable<T> of(List<T> values, List<? extends Number> weights) {
+
+        if (values.size() != weights.size()) {
+            throw new IllegalArgumentException("Expected as many weights as values");
+        }
+
+        List<T> includedValues = new ArrayList<>(values.size());
+        List<Double> includedWeights = new ArrayList<>(values.size());
+
+        double totalWeight = 0;
+        for (int i = 0; i < values.size(); i++) {
+
+            double weight = weights.get(i).doubleValue();
+            if (weight > 0 && Double.isFinite(weight)) {
+                includedValues.add(values.get(i));
+                includedWeights.add(weight);
+                totalWeight += weight;
+            }
+
+        }
+
+        int size = includedValues.size();
+        if (size == 0) {
+            return empty();
+        }
+
+        double[] probabilities = new double[size];
+        int[] aliases = new int[size];
+
+        //  Scale the weights so that their average is 1, then pair every "small" entry with a "large" one
+        double[] scaledWeights = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < size; i++) {
+
+            scaledWeights[i] = includedWeights.get(i) * size / totalWeight;
+            if (scaledWeights[i] < 1) {
+                small[smallCount++] = i;
+            }
+
+            else {
+                large[largeCount++] = i;
+            }
+
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probabilities[less] = scaledWeights[less];
+            aliases[less] = more;
+
+            scaledWeights[more] = (scaledWeights[more] + scaledWeights[less]) - 1;
+            if (scaledWeights[more] < 1) {
+                small[smallCount++] = more;
+            }
+
+            else {
+                large[largeCount++] = more;
+            }
+
+        }
+
+        //  Whatever is left is (up to rounding errors) exactly 1
+        while (largeCount > 0) {
+            probabilities[large[--largeCount]] = 1;
+        }
+
+        while (smallCount > 0) {
+            probabilities[small[--smallCount]] = 1;
+        }
+
+        return new AliasTable<>(includedValues.toArray(), probabilities, aliases);
+
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     *  @return a random value of the table, or {@code null} if the table is empty
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T sample(Random random) {
+
+        if (values.length == 0) {
+            return null;
+        }
+
+        int index = random.nextInt(values.length);
+        return (T) (random.nextDouble() < probabilities[index] ? values[index] : values[aliases[index]]);
+
+    }
+
+}
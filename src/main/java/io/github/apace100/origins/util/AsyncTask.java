@@ -0,0 +1,174 @@
+package io.github.apace100.origins.util;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ *  Work that is computed on a virtual thread, and whose result is then applied on the server thread. Created with
+ *  {@link Scheduler#supplyAsync(String, Supplier)}; the work starts right away, and the result is handed to the callback
+ *  passed to {@link #thenOnServer(BiConsumer)} on the first server tick after it's done. The task is tracked by the
+ *  scheduler from the start, so it's cancelled when the server stops (or its player disconnects) even without a
+ *  callback.
+ *
+ *  <p>The work must not modify any world: blocks and entities may only be changed in the callback. Changing blocks or
+ *  spawning entities from the work throws an {@link IllegalStateException}.</p>
+ */
+public final class AsyncTask<T> implements Scheduler.Handle {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Origins Compute #", 0).factory());
+    private static final ThreadLocal<Boolean> COMPUTING = ThreadLocal.withInitial(() -> false);
+
+    private final Scheduler scheduler;
+    private final String name;
+    private final CompletableFuture<T> future;
+
+    @Nullable
+    private BiConsumer<MinecraftServer, T> callback;
+    @Nullable
+    private UUID boundPlayerUuid;
+
+    private volatile boolean cancelled;
+    private boolean applied;
+
+    AsyncTask(Scheduler scheduler, String name, Supplier<T> work) {
+        this.scheduler = scheduler;
+        this.name = name;
+        this.future = CompletableFuture.supplyAsync(() -> this.compute(work), EXECUTOR);
+    }
+
+    /**
+     *  Registers this task with its scheduler, which cancels it on shutdown and applies its result once it's done.
+     */
+    void track() {
+        this.scheduler.track(this);
+        this.future.whenComplete((result, throwable) -> this.scheduler.complete(this));
+    }
+
+    /**
+     *  @return whether the current thread is computing the work of an async task
+     */
+    public static boolean isComputing() {
+        return Thread.currentThread().isVirtual() && COMPUTING.get();
+    }
+
+    /**
+     *  Throws if the current thread is computing the work of an async task.
+     *
+     *  @param action a description of the world mutation that is attempted, for the exception message
+     */
+    public static void checkNotComputing(String action) {
+        if (isComputing()) {
+            throw new IllegalStateException("Tried to " + action + " from an async task; worlds may only be modified in the server callback");
+        }
+    }
+
+    /**
+     *  Cancels this task when the specified player disconnects.
+     */
+    public AsyncTask<T> boundTo(ServerPlayerEntity player) {
+
+        if (this.boundPlayerUuid != null) {
+            throw new IllegalStateException("Async task \"" + name + "\" is already bound to a player!");
+        }
+
+        this.boundPlayerUuid = player.getUuid();
+        return this;
+
+    }
+
+    /**
+     *  Sets the callback that applies the result on the server thread. Must be called on the server thread, and only once.
+     *
+     *  @return a handle that can cancel the task before its result is applied
+     */
+    public Scheduler.Handle thenOnServer(BiConsumer<MinecraftServer, T> callback) {
+
+        if (this.callback != null) {
+            throw new IllegalStateException("Async task \"" + name + "\" already has a callback!");
+        }
+
+        this.callback = callback;
+        return this;
+
+    }
+
+    @Override
+    public boolean cancel() {
+
+        if (!this.isScheduled()) {
+            this.cancelled = true;
+            return false;
+        }
+
+        this.cancelled = true;
+        this.future.cancel(false);
+
+        this.scheduler.untrack(this);
+        return true;
+
+    }
+
+    @Override
+    public boolean isScheduled() {
+        return !this.cancelled && !this.applied;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    @Nullable
+    UUID getBoundPlayerUuid() {
+        return boundPlayerUuid;
+    }
+
+    /**
+     *  Applies the result of the work with the callback. Called on the server thread once the work is done.
+     */
+    void apply(MinecraftServer server) {
+
+        if (!this.isScheduled()) {
+            return;
+        }
+
+        this.applied = true;
+        if (this.callback == null) {
+            return;
+        }
+
+        T result;
+        try {
+            result = this.future.join();
+        } catch (CancellationException e) {
+            return;
+        }
+
+        this.callback.accept(server, result);
+
+    }
+
+    private T compute(Supplier<T> work) {
+
+        if (this.cancelled) {
+            throw new CancellationException();
+        }
+
+        COMPUTING.set(true);
+        try {
+            return work.get();
+        } finally {
+            COMPUTING.remove();
+        }
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package io.github.apace100.origins.util;
+
+import io.github.apace100.origins.access.ExposureCacheHolder;
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.vehicle.BoatEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ *  Caches whether it's raining at, the sky is visible from, and it's bright at block positions of a server world, so
+ *  that the rain and sun exposure checks of entities standing close to each other share their lookups. The entries of a
+ *  block column are dropped when a block in the column changes, and all entries are dropped when the weather changes,
+ *  when it turns day or night, or when the ambient darkness of the world (which the brightness depends on) changes.
+ *
+ *  <p>The entries of a column also expire {@link #MAX_AGE_TICKS} ticks after they were first computed, since the light
+ *  level of a position can also be changed by blocks in other columns. Expired columns are swept out regularly, so the
+ *  cache only holds the columns that were checked recently.</p>
+ */
+public class ExposureCache {
+
+    public static final int MAX_AGE_TICKS = 20;
+
+    private static final byte RAIN_COMPUTED = 1;
+    private static final byte RAIN = 1 << 1;
+    private static final byte SKY_COMPUTED = 1 << 2;
+    private static final byte SKY = 1 << 3;
+    private static final byte BRIGHT_COMPUTED = 1 << 4;
+    private static final byte BRIGHT = 1 << 5;
+
+    private final ServerWorld world;
+    private final Long2ObjectOpenHashMap<ColumnFlags> flagsByColumn = new Long2ObjectOpenHashMap<>();
+
+    private boolean raining;
+    private boolean thundering;
+    private boolean day;
+    private int ambientDarkness;
+
+    public ExposureCache(ServerWorld world) {
+        this.world = world;
+        this.raining = world.isRaining();
+        this.thundering = world.isThundering();
+        this.day = world.isDay();
+        this.ambientDarkness = world.getAmbientDarkness();
+    }
+
+    public static void init() {
+        ServerTickEvents.END_WORLD_TICK.register(world -> ((ExposureCacheHolder) world).origins$getExposureCache().tick());
+    }
+
+    /**
+     *  Equivalent to {@code Entity#isBeingRainedOn}, which is private.
+     */
+    public static boolean isBeingRainedOn(Entity entity) {
+
+        BlockPos feetPos = entity.getBlockPos();
+        BlockPos headPos = BlockPos.ofFloored(entity.getX(), entity.getBoundingBox().maxY, entity.getZ());
+
+        if (!(entity.getWorld() instanceof ServerWorld serverWorld)) {
+            return entity.getWorld().hasRain(feetPos) || entity.getWorld().hasRain(headPos);
+        }
+
+        ExposureCache cache = ((ExposureCacheHolder) serverWorld).origins$getExposureCache();
+        return cache.hasRain(feetPos) || cache.hasRain(headPos);
+
+    }
+
+    /**
+     *  Whether the entity is exposed to the sun: it's day, the entity is not being rained on, its eyes are in a bright
+     *  spot, and it can see the sky (from a block higher when in a boat). Like {@code Entity#getBrightnessAtEyes}, the
+     *  eyes of an entity in an unloaded column are never in a bright spot.
+     */
+    public static boolean isExposedToSun(Entity entity) {
+
+        World world = entity.getWorld();
+        if (!world.isDay() || isBeingRainedOn(entity) || !world.isPosLoaded(entity.getBlockX(), entity.getBlockZ())) {
+            return false;
+        }
+
+        BlockPos eyePos = BlockPos.ofFloored(entity.getX(), entity.getEyeY(), entity.getZ());
+        BlockPos pos = BlockPos.ofFloored(entity.getX(), Math.round(entity.getY()), entity.getZ());
+
+        if (entity.getVehicle() instanceof BoatEntity) {
+            pos = pos.up();
+        }
+
+        if (!(world instanceof ServerWorld serverWorld)) {
+            return world.getBrightness(eyePos) > 0.5F && world.isSkyVisible(pos);
+        }
+
+        ExposureCache cache = ((ExposureCacheHolder) serverWorld).origins$getExposureCache();
+        return cache.isBright(eyePos) && cache.isSkyVisible(pos);
+
+    }
+
+    public boolean hasRain(BlockPos pos) {
+        return get(pos, RAIN_COMPUTED, RAIN);
+    }
+
+    public boolean isSkyVisible(BlockPos pos) {
+        return get(pos, SKY_COMPUTED, SKY);
+    }
+
+    public boolean isBright(BlockPos pos) {
+        return get(pos, BRIGHT_COMPUTED, BRIGHT);
+    }
+
+    public void invalidateColumn(BlockPos pos) {
+        if (!flagsByColumn.isEmpty()) {
+            flagsByColumn.remove(ChunkPos.toLong(pos.getX(), pos.getZ()));
+        }
+    }
+
+    public int size() {
+        return flagsByColumn.size();
+    }
+
+    private boolean get(BlockPos pos, byte computedFlag, byte valueFlag) {
+
+        long columnPos = ChunkPos.toLong(pos.getX(), pos.getZ());
+        long time = world.getTime();
+
+        ColumnFlags column = flagsByColumn.get(columnPos);
+        if (column == null || column.isExpired(time)) {
+            column = new ColumnFlags(time);
+            flagsByColumn.put(columnPos, column);
+        }
+
+        Int2ByteOpenHashMap columnFlags = column.flagsByY();
+        byte flags = columnFlags.get(pos.getY());
+
+        if ((flags & computedFlag) == 0) {
+
+            flags |= computedFlag;
+            if (compute(pos, computedFlag)) {
+                flags |= valueFlag;
+            }
+
+            columnFlags.put(pos.getY(), flags);
+
+        }
+
+        return (flags & valueFlag) != 0;
+
+    }
+
+    private boolean compute(BlockPos pos, byte computedFlag) {
+        return switch (computedFlag) {
+            case RAIN_COMPUTED -> world.hasRain(pos);
+            case SKY_COMPUTED -> world.isSkyVisible(pos);
+            case BRIGHT_COMPUTED -> world.getBrightness(pos) > 0.5F;
+            default -> throw new IllegalArgumentException("Unknown exposure flag " + computedFlag);
+        };
+    }
+
+    private void tick() {
+
+        boolean raining = world.isRaining();
+        boolean thundering = world.isThundering();
+        boolean day = world.isDay();
+        int ambientDarkness = world.getAmbientDarkness();
+
+        if (raining != this.raining || thundering != this.thundering || day != this.day || ambientDarkness != this.ambientDarkness) {
+
+            this.raining = raining;
+            this.thundering = thundering;
+            this.day = day;
+            this.ambientDarkness = ambientDarkness;
+
+            flagsByColumn.clear();
+
+        }
+
+        else if (world.getTime() % MAX_AGE_TICKS == 0 && !flagsByColumn.isEmpty()) {
+            long time = world.getTime();
+            flagsByColumn.values().removeIf(column -> column.isExpired(time));
+        }
+
+    }
+
+    private record ColumnFlags(long createdTime, Int2ByteOpenHashMap flagsByY) {
+
+        private ColumnFlags(long createdTime) {
+            this(createdTime, new Int2ByteOpenHashMap());
+        }
+
+        private boolean isExpired(long time) {
+            return time - createdTime >= MAX_AGE_TICKS;
+        }
+
+    }
+
+}
@@ -9,6 +9,19 @@ import net.minecraft.text.Text;
 @Environment(EnvType.CLIENT)
 public class KeyBindingUtil {
 
+    private static int version;
+
+    /**
+     *  @return a number that changes whenever a key binding is bound to a different key
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+    public static void onKeyBindingsChanged() {
+        version++;
+    }
+
     /**
      *  Get the localized name of the keybind from the specified ID. If no such keybind exists or if the keybind is
      *  not bound to any key, use the specified ID instead.
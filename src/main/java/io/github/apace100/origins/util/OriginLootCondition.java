@@ -3,16 +3,15 @@ package io.github.apace100.origins.util;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import io.github.apace100.origins.component.OriginComponent;
-import io.github.apace100.origins.origin.Origin;
-import io.github.apace100.origins.origin.OriginLayer;
 import io.github.apace100.origins.registry.ModComponents;
+import net.minecraft.entity.Entity;
 import net.minecraft.loot.condition.LootCondition;
 import net.minecraft.loot.condition.LootConditionType;
 import net.minecraft.loot.context.LootContext;
 import net.minecraft.loot.context.LootContextParameters;
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
 import java.util.Optional;
 
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
@@ -27,9 +26,13 @@ public class OriginLootCondition implements LootCondition {
     private final Identifier origin;
     private final Optional<Identifier> layer;
 
+    @Nullable
+    private final Identifier layerId;
+
     private OriginLootCondition(Identifier origin, Optional<Identifier> layer) {
         this.origin = origin;
         this.layer = layer;
+        this.layerId = layer.orElse(null);
     }
 
     @Override
@@ -40,24 +43,16 @@ public class OriginLootCondition implements LootCondition {
     @Override
     public boolean test(LootContext lootContext) {
 
-        OriginComponent component = ModComponents.ORIGIN.maybeGet(lootContext.get(LootContextParameters.THIS_ENTITY))
-            .orElse(null);
+        Entity entity = lootContext.get(LootContextParameters.THIS_ENTITY);
+        OriginComponent component = entity != null ? ModComponents.ORIGIN.getNullable(entity) : null;
+
         if (component == null) {
             return false;
         }
 
-        for (Map.Entry<OriginLayer, Origin> entry : component.getOrigins().entrySet()) {
-
-            Identifier layerId = entry.getKey().getId();
-            Identifier originId = entry.getValue().getId();
-
-            if (layer.map(layerId::equals).orElse(true) && originId.equals(origin)) {
-                return true;
-            }
-
-        }
-
-        return false;
+        return layerId == null
+            ? component.hasOrigin(origin)
+            : component.hasOrigin(origin, layerId);
 
     }
 
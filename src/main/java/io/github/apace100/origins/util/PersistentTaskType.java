@@ -0,0 +1,37 @@
+package io.github.apace100.origins.util;
+
+import com.mojang.serialization.Codec;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ *  A type of task that can be {@linkplain Scheduler#queuePersistent(PersistentTaskType, String, Object, int) scheduled}
+ *  so that it survives server restarts. Only the ID of the type and the data of the task (encoded with the codec of the
+ *  type) are saved, so the action itself must be registered before the server starts.
+ */
+public record PersistentTaskType<T>(Identifier id, Codec<T> dataCodec, BiConsumer<MinecraftServer, T> action) {
+
+    private static final Map<Identifier, PersistentTaskType<?>> REGISTRY = new HashMap<>();
+
+    public static <T> PersistentTaskType<T> register(Identifier id, Codec<T> dataCodec, BiConsumer<MinecraftServer, T> action) {
+
+        PersistentTaskType<T> type = new PersistentTaskType<>(id, dataCodec, action);
+        if (REGISTRY.putIfAbsent(id, type) != null) {
+            throw new IllegalArgumentException("Persistent task type \"" + id + "\" is already registered!");
+        }
+
+        return type;
+
+    }
+
+    @Nullable
+    public static PersistentTaskType<?> get(Identifier id) {
+        return REGISTRY.get(id);
+    }
+
+}
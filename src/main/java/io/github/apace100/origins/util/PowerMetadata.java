@@ -0,0 +1,115 @@
+package io.github.apace100.origins.util;
+
+import io.github.apace100.apoli.power.Power;
+import io.github.apace100.apoli.power.PowerManager;
+import io.github.apace100.apoli.power.type.Active;
+import io.github.apace100.apoli.power.type.PowerType;
+import io.github.apace100.apoli.power.type.RecipePowerType;
+import io.github.apace100.apoli.power.type.ToggleNightVisionPowerType;
+import io.github.apace100.apoli.power.type.TogglePowerType;
+import io.github.apace100.origins.Origins;
+import net.minecraft.recipe.CraftingRecipe;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *  What Origins needs to know about the power type of a power: whether it's active (and with which key), togglable, or
+ *  grants a recipe. Finding out requires creating a throwaway instance of the power type, so the metadata of a power is
+ *  extracted once and cached until the powers are reloaded or cleared. Clearing the cache swaps in a new map rather than
+ *  emptying the current one, so that metadata still being {@linkplain #precompute(Collection) precomputed} for the old
+ *  powers ends up in the discarded map instead of in the new one.
+ *
+ *  @param kind     the kind of the power type
+ *  @param key      the ID of the key of the power type if it's {@linkplain Kind#isActive() active}, otherwise an empty string
+ *  @param recipe   the recipe of the power type if it's a {@linkplain Kind#RECIPE recipe} power type
+ */
+public record PowerMetadata(Kind kind, String key, @Nullable CraftingRecipe recipe) {
+
+    public static final PowerMetadata NONE = new PowerMetadata(Kind.OTHER, "", null);
+
+    private static volatile Map<Identifier, PowerMetadata> metadataById = new ConcurrentHashMap<>();
+
+    public static PowerMetadata get(Power power) {
+        return metadataById.computeIfAbsent(power.getId(), id -> extract(power));
+    }
+
+    public static PowerMetadata get(Identifier powerId) {
+
+        PowerMetadata metadata = metadataById.get(powerId);
+        if (metadata != null) {
+            return metadata;
+        }
+
+        return PowerManager.getOptional(powerId)
+            .map(PowerMetadata::get)
+            .orElse(NONE);
+
+    }
+
+    /**
+     *  Extracts the metadata of the specified powers in parallel on worker threads, so that later lookups of it don't
+     *  have to. The metadata is only written to the cache that was current when this was called, so it's discarded if
+     *  the cache is {@linkplain #clear() cleared} in the meantime.
+     *
+     *  <p>Note that this creates the throwaway power type instances off the main thread, so the constructors of the power
+     *  types must not touch any game state when they're given no entity. The power types of Apoli and Origins don't; if
+     *  the power type of an addon fails to be created, its metadata is left to be extracted on the thread that looks it
+     *  up instead.</p>
+     */
+    public static CompletableFuture<Void> precompute(Collection<Identifier> powerIds) {
+
+        Map<Identifier, PowerMetadata> metadata = metadataById;
+        return CompletableFuture.runAsync(() -> powerIds.parallelStream().forEach(powerId -> PowerManager.getOptional(powerId).ifPresent(power -> {
+
+            try {
+                metadata.computeIfAbsent(powerId, id -> extract(power));
+            }
+
+            catch (RuntimeException e) {
+                Origins.LOGGER.debug("Could not precompute the metadata of power \"{}\": {}", powerId, e.getMessage());
+            }
+
+        })), Util.getMainWorkerExecutor());
+
+    }
+
+    public static void clear() {
+        metadataById = new ConcurrentHashMap<>();
+    }
+
+    private static PowerMetadata extract(Power power) {
+
+        PowerType powerType = power.create(null);
+        return switch (powerType) {
+            case Active active when active instanceof TogglePowerType || active instanceof ToggleNightVisionPowerType ->
+                new PowerMetadata(Kind.TOGGLE, active.getKey().key, null);
+            case Active active ->
+                new PowerMetadata(Kind.ACTIVE, active.getKey().key, null);
+            case RecipePowerType recipePowerType ->
+                new PowerMetadata(Kind.RECIPE, "", recipePowerType.getRecipe());
+            case null, default ->
+                NONE;
+        };
+
+    }
+
+    public enum Kind {
+
+        OTHER,
+        ACTIVE,
+        TOGGLE,
+        RECIPE;
+
+        public boolean isActive() {
+            return this == ACTIVE || this == TOGGLE;
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package io.github.apace100.origins.util;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+@Environment(EnvType.CLIENT)
+public class PowerTypeVersion {
+
+    private static int version;
+
+    /**
+     *  @return a number that changes whenever a power type is created for an entity on the client, which happens whenever
+     *  the powers of an entity are synced to the client
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+    public static void onPowerTypesChanged() {
+        version++;
+    }
+
+}
@@ -0,0 +1,125 @@
+package io.github.apace100.origins.util;
+
+import io.github.apace100.origins.Origins;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.registry.RegistryOps;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.PersistentState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  Saves the pending {@linkplain Scheduler#queuePersistent persistent tasks} of {@link Origins#SCHEDULER} in the data
+ *  of the overworld, and queues them again with their remaining delay when the server starts.
+ */
+public class ScheduledTaskState extends PersistentState {
+
+    public static final String ID = Origins.MODID + "_scheduled_tasks";
+
+    public static final Type<ScheduledTaskState> TYPE = new Type<>(ScheduledTaskState::new, ScheduledTaskState::fromNbt, null);
+
+    private final List<NbtCompound> loadedTasks = new ArrayList<>();
+
+    public static void restore(MinecraftServer server) {
+
+        ScheduledTaskState state = server.getOverworld().getPersistentStateManager().getOrCreate(TYPE, ID);
+        RegistryOps<NbtElement> ops = server.getRegistryManager().getOps(NbtOps.INSTANCE);
+
+        for (NbtCompound taskNbt : state.loadedTasks) {
+            restore(ops, taskNbt);
+        }
+
+        state.loadedTasks.clear();
+
+    }
+
+    private static <T> void restore(RegistryOps<NbtElement> ops, NbtCompound taskNbt) {
+
+        Identifier typeId = Identifier.tryParse(taskNbt.getString("Type"));
+        @SuppressWarnings("unchecked")
+        PersistentTaskType<T> type = typeId != null ? (PersistentTaskType<T>) PersistentTaskType.get(typeId) : null;
+
+        if (type == null) {
+            Origins.LOGGER.warn("Discarding scheduled task of unknown type \"{}\"", taskNbt.getString("Type"));
+            return;
+        }
+
+        String key = taskNbt.contains("Key", NbtElement.STRING_TYPE) ? taskNbt.getString("Key") : null;
+        int delay = taskNbt.getInt("Delay");
+
+        type.dataCodec().parse(ops, taskNbt.get("Data"))
+            .ifSuccess(data -> Origins.SCHEDULER.queuePersistent(type, key, data, delay))
+            .ifError(error -> Origins.LOGGER.warn("Discarding scheduled task of type \"{}\" with invalid data: {}", typeId, error.message()));
+
+    }
+
+    private static ScheduledTaskState fromNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup wrapperLookup) {
+
+        ScheduledTaskState state = new ScheduledTaskState();
+        NbtList tasksNbt = nbt.getList("Tasks", NbtElement.COMPOUND_TYPE);
+
+        for (int i = 0; i < tasksNbt.size(); i++) {
+            state.loadedTasks.add(tasksNbt.getCompound(i));
+        }
+
+        return state;
+
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup wrapperLookup) {
+
+        RegistryOps<NbtElement> ops = wrapperLookup.getOps(NbtOps.INSTANCE);
+        NbtList tasksNbt = new NbtList();
+
+        for (Map.Entry<Scheduler.PersistentTask<?>, Integer> entry : Origins.SCHEDULER.getPersistentTasks().entrySet()) {
+            writeTask(ops, entry.getKey(), entry.getValue(), tasksNbt);
+        }
+
+        //  Keep tasks that couldn't be restored yet, e.g. if the server stopped before they were queued again
+        tasksNbt.addAll(loadedTasks);
+        nbt.put("Tasks", tasksNbt);
+
+        return nbt;
+
+    }
+
+    /**
+     *  The remaining delays of the pending tasks change every tick, so this state is saved whenever there are any.
+     */
+    @Override
+    public boolean isDirty() {
+        return super.isDirty() || !loadedTasks.isEmpty() || Origins.SCHEDULER.hasPersistentTasks();
+    }
+
+    private static <T> void writeTask(RegistryOps<NbtElement> ops, Scheduler.PersistentTask<T> task, int delay, NbtList tasksNbt) {
+
+        PersistentTaskType<T> type = task.type();
+        type.dataCodec().encodeStart(ops, task.data())
+            .ifSuccess(dataNbt -> {
+
+                NbtCompound taskNbt = new NbtCompound();
+
+                taskNbt.putString("Type", type.id().toString());
+                taskNbt.putInt("Delay", delay);
+                taskNbt.put("Data", dataNbt);
+
+                if (task.key() != null) {
+                    taskNbt.putString("Key", task.key());
+                }
+
+                tasksNbt.add(taskNbt);
+
+            })
+            .ifError(error -> Origins.LOGGER.warn("Could not save scheduled task of type \"{}\": {}", type.id(), error.message()));
+
+    }
+
+}
@@ -1,14 +1,27 @@
 package io.github.apace100.origins.util;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import io.github.apace100.origins.Origins;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.IntPredicate;
+import java.util.function.Supplier;
 
 /**
  * This is free and unencumbered software released into the public domain.
@@ -36,26 +49,73 @@ import java.util.function.IntPredicate;
  *
  * For more information, please refer to <http://unlicense.org/>
  */
+/**
+ * Runs tasks on the server thread after a delay in ticks. Tasks are kept in a hierarchical timing wheel, so queueing
+ * and cancelling (through the returned {@link Handle}) are O(1) regardless of the number of pending tasks.
+ *
+ * <p>Due tasks are run in {@link Priority priority} order while the per-tick time budget lasts, and the rest roll over
+ * to the following ticks in the order they became due. Each priority still runs its {@linkplain Priority#getMinimumShare()
+ * minimum share} of tasks per tick once the budget ran out, so that higher priorities can't starve the lower ones.</p>
+ *
+ * <p>Tasks of a registered {@link PersistentTaskType} can be {@linkplain #queuePersistent queued persistently}, in which
+ * case they're saved with the world by {@link ScheduledTaskState} and queued again with their remaining delay when the
+ * server starts.</p>
+ *
+ * <p>Work that doesn't need the server thread can be {@linkplain #supplyAsync computed on a virtual thread}, with its
+ * result applied on the server thread afterwards.</p>
+ *
+ * <p>Not thread-safe: tasks must be queued and cancelled on the server thread.</p>
+ */
 public class Scheduler {
-    private final Int2ObjectMap<List<Consumer<MinecraftServer>>> taskQueue = new Int2ObjectOpenHashMap<>();
-    private int currentTick = 0;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private static final String UNNAMED = "unnamed";
+
+    private final TaskList[][] wheel = new TaskList[LEVELS][SLOTS];
+    private final TaskList[] lanes = new TaskList[Priority.values().length];
+
+    private final Map<String, Metrics> metrics = new Object2ObjectLinkedOpenHashMap<>();
+
+    private final Set<Task> persistentTasks = new LinkedHashSet<>();
+    private final Map<PersistentKey, Task> persistentTasksByKey = new HashMap<>();
+
+    private final Set<AsyncTask<?>> asyncTasks = new LinkedHashSet<>();
+    private final Queue<AsyncTask<?>> completedAsyncTasks = new ConcurrentLinkedQueue<>();
+    private final long budgetNanos;
+
+    private long currentTick = 0;
 
     public Scheduler() {
-        ServerTickEvents.END_SERVER_TICK.register(m -> {
-            this.currentTick = m.getTicks();
-            List<Consumer<MinecraftServer>> runnables = this.taskQueue.remove(this.currentTick);
-            if (runnables != null) for (int i = 0; i < runnables.size(); i++) {
-                Consumer<MinecraftServer> runnable = runnables.get(i);
-                runnable.accept(m);
-
-                if(runnable instanceof Repeating) {// reschedule repeating tasks
-                    Repeating repeating = ((Repeating) runnable);
-                    if(repeating.shouldQueue(this.currentTick))
-                        this.queue(runnable, ((Repeating) runnable).next);
-                }
+        this(10);
+    }
+
+    /**
+     * @param budgetMillis how many milliseconds per tick may be spent on running tasks beyond the minimum share of
+     *                     each priority
+     */
+    public Scheduler(long budgetMillis) {
+
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[level][slot] = new TaskList();
             }
+        }
+
+        for (int lane = 0; lane < lanes.length; lane++) {
+            lanes[lane] = new TaskList();
+        }
+
+        ServerTickEvents.END_SERVER_TICK.register(this::tick);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> this.cancelAsync(null));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> this.clear());
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> this.cancelAsync(handler.player.getUuid()));
 
-        });
     }
 
     /**
@@ -63,8 +123,19 @@ public class Scheduler {
      * @param tick how many ticks in the future this should be called, where 0 means at the end of the current tick
      * @param task the action to perform
      */
-    public void queue(Consumer<MinecraftServer> task, int tick) {
-        this.taskQueue.computeIfAbsent(this.currentTick + tick + 1, t -> new ArrayList<>()).add(task);
+    public Handle queue(Consumer<MinecraftServer> task, int tick) {
+        return this.queue(UNNAMED, Priority.NORMAL, task, tick);
+    }
+
+    /**
+     * queue a one time task to be executed on the server thread
+     * @param name the name the metrics of the task are recorded under
+     * @param priority the priority of the task
+     * @param task the action to perform
+     * @param tick how many ticks in the future this should be called, where 0 means at the end of the current tick
+     */
+    public Handle queue(String name, Priority priority, Consumer<MinecraftServer> task, int tick) {
+        return this.schedule(new Task(name, priority, task, null, -1), tick);
     }
 
     /**
@@ -73,8 +144,8 @@ public class Scheduler {
      * @param tick how many ticks in the future this event should first be called
      * @param interval the number of ticks in between each execution
      */
-    public void repeating(Consumer<MinecraftServer> task, int tick, int interval) {
-        this.repeatWhile(task, null, tick, interval);
+    public Handle repeating(Consumer<MinecraftServer> task, int tick, int interval) {
+        return this.repeatWhile(task, null, tick, interval);
     }
 
     /**
@@ -84,8 +155,21 @@ public class Scheduler {
      * @param tick how many ticks in the future this event should first be called
      * @param interval the number of ticks in between each execution
      */
-    public void repeatWhile(Consumer<MinecraftServer> task, IntPredicate requeue, int tick, int interval) {
-        this.queue(new Repeating(task, requeue, interval), tick);
+    public Handle repeatWhile(Consumer<MinecraftServer> task, IntPredicate requeue, int tick, int interval) {
+        return this.repeatWhile(UNNAMED, Priority.NORMAL, task, requeue, tick, interval);
+    }
+
+    /**
+     * repeat the given task until the predicate returns false
+     * @param name the name the metrics of the task are recorded under
+     * @param priority the priority of the task
+     * @param task the action to perform
+     * @param requeue whether or not to reschedule the task again, with the parameter being the current tick
+     * @param tick how many ticks in the future this event should first be called
+     * @param interval the number of ticks in between each execution
+     */
+    public Handle repeatWhile(String name, Priority priority, Consumer<MinecraftServer> task, IntPredicate requeue, int tick, int interval) {
+        return this.schedule(new Task(name, priority, task, requeue, Math.max(0, interval)), tick);
     }
 
     /**
@@ -93,10 +177,10 @@ public class Scheduler {
      * @param task the action to perform
      * @param times the number of <b>additional</b> times the task should be scheduled
      * @param tick how many ticks in the future this event should first be called
-     * 	 * @param interval the number of ticks in between each execution
+     * @param interval the number of ticks in between each execution
      */
-    public void repeatN(Consumer<MinecraftServer> task, int times, int tick, int interval) {
-        this.repeatWhile(task, new IntPredicate() {
+    public Handle repeatN(Consumer<MinecraftServer> task, int times, int tick, int interval) {
+        return this.repeatWhile(task, new IntPredicate() {
             private int remaining = times;
             @Override
             public boolean test(int value) {
@@ -105,27 +189,501 @@ public class Scheduler {
         }, tick, interval);
     }
 
-    private static final class Repeating implements Consumer<MinecraftServer> {
-        private final Consumer<MinecraftServer> task;
+    /**
+     * queue a one time task that is saved with the world, so that it still runs after the server restarts
+     * @param type the registered type of the task, which performs the action
+     * @param key if not null, a key that identifies the task within its type; queueing a task with the same type and key
+     *            cancels the pending one
+     * @param data the data passed to the action of the type, which must be encodable by the codec of the type
+     * @param tick how many ticks in the future this should be called, where 0 means at the end of the current tick
+     */
+    public <T> Handle queuePersistent(PersistentTaskType<T> type, @Nullable String key, T data, int tick) {
+
+        PersistentTask<T> persistentTask = new PersistentTask<>(type, key, data);
+        if (key != null) {
+
+            Task pendingTask = this.persistentTasksByKey.get(persistentTask.lookupKey());
+            if (pendingTask != null) {
+                pendingTask.cancel();
+            }
+
+        }
+
+        Task task = new Task(type.id().toString(), Priority.NORMAL, server -> type.action().accept(server, data), null, -1);
+        task.persistent = persistentTask;
+
+        this.persistentTasks.add(task);
+        if (key != null) {
+            this.persistentTasksByKey.put(persistentTask.lookupKey(), task);
+        }
+
+        return this.schedule(task, tick);
+
+    }
+
+    /**
+     * @return the pending persistent task of the specified type and key, if any
+     */
+    @Nullable
+    public Handle getPersistent(PersistentTaskType<?> type, String key) {
+        return this.persistentTasksByKey.get(new PersistentKey(type.id().toString(), key));
+    }
+
+    /**
+     * compute something off the server thread, e.g. <code>supplyAsync("search", () -> search(snapshot)).thenOnServer((server, result) -> apply(result))</code>
+     * @param name the name the metrics of the callback are recorded under
+     * @param work the computation to perform on a virtual thread, which must not modify any world
+     */
+    public <T> AsyncTask<T> supplyAsync(String name, Supplier<T> work) {
+
+        AsyncTask<T> task = new AsyncTask<>(this, name, work);
+        task.track();
+
+        return task;
+
+    }
+
+    public <T> AsyncTask<T> supplyAsync(Supplier<T> work) {
+        return this.supplyAsync(UNNAMED, work);
+    }
+
+    public boolean hasPersistentTasks() {
+        return !this.persistentTasks.isEmpty();
+    }
+
+    /**
+     * @return a snapshot of the metrics of every task name, in the order the names were first run
+     */
+    public Map<String, TaskMetrics> getMetrics() {
+
+        Map<String, TaskMetrics> snapshot = new LinkedHashMap<>();
+        this.metrics.forEach((name, taskMetrics) -> snapshot.put(name, taskMetrics.snapshot()));
+
+        return Collections.unmodifiableMap(snapshot);
+
+    }
+
+    /**
+     * @return the number of tasks that are due, but were deferred to a later tick because the budget ran out
+     */
+    public int getBacklog() {
+
+        int backlog = 0;
+        for (TaskList lane : this.lanes) {
+            backlog += lane.size;
+        }
+
+        return backlog;
+
+    }
+
+    /**
+     * cancel all pending tasks
+     */
+    public void clear() {
+
+        this.cancelAsync(null);
+        this.completedAsyncTasks.clear();
+
+        this.persistentTasks.clear();
+        this.persistentTasksByKey.clear();
+
+        for (TaskList[] level : this.wheel) {
+            for (TaskList slot : level) {
+                slot.clear();
+            }
+        }
+
+        for (TaskList lane : this.lanes) {
+            lane.clear();
+        }
+
+    }
+
+    /**
+     * @return the pending persistent tasks along with the number of ticks until they are due
+     */
+    Map<PersistentTask<?>, Integer> getPersistentTasks() {
+
+        Map<PersistentTask<?>, Integer> tasks = new LinkedHashMap<>();
+        for (Task task : this.persistentTasks) {
+            tasks.put(task.persistent, (int) Math.max(0, task.deadline - this.currentTick - 1));
+        }
+
+        return tasks;
+
+    }
+
+    void track(AsyncTask<?> task) {
+        this.asyncTasks.add(task);
+    }
+
+    void untrack(AsyncTask<?> task) {
+        this.asyncTasks.remove(task);
+    }
+
+    /**
+     * hands a finished async task over to the server thread; called on the thread that computed it
+     */
+    void complete(AsyncTask<?> task) {
+        this.completedAsyncTasks.add(task);
+    }
+
+    /**
+     * cancel the async tasks that are bound to the specified player, or all of them if the player is null
+     */
+    private void cancelAsync(@Nullable UUID playerUuid) {
+
+        for (AsyncTask<?> task : new ArrayList<>(this.asyncTasks)) {
+            if (playerUuid == null || playerUuid.equals(task.getBoundPlayerUuid())) {
+                task.cancel();
+            }
+        }
+
+    }
+
+    private void forgetPersistent(Task task) {
+
+        this.persistentTasks.remove(task);
+        if (task.persistent.key() != null) {
+            this.persistentTasksByKey.remove(task.persistent.lookupKey(), task);
+        }
+
+    }
+
+    private Handle schedule(Task task, int tick) {
+
+        task.deadline = this.currentTick + Math.max(0, tick) + 1;
+        this.insert(task);
+
+        return task;
+
+    }
+
+    private void insert(Task task) {
+
+        long delay = task.deadline - this.currentTick;
+        if (delay <= 0) {
+            this.lanes[task.priority.ordinal()].add(task);
+            return;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+
+        int slot = (int) (task.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+        this.wheel[level][slot].add(task);
+
+    }
+
+    private void tick(MinecraftServer server) {
+
+        long tick = ++this.currentTick;
+
+        //  Apply the results of the async tasks that finished since the last tick
+        AsyncTask<?> asyncTask;
+        while ((asyncTask = this.completedAsyncTasks.poll()) != null) {
+
+            if (!this.asyncTasks.remove(asyncTask)) {
+                continue;
+            }
+
+            AsyncTask<?> completedTask = asyncTask;
+            this.measure(completedTask.getName(), () -> completedTask.apply(server));
+
+        }
+
+        //  Move the tasks of the higher levels whose range starts at this tick down the wheel, starting with the highest
+        //  level so that tasks can cascade more than one level on the same tick
+        int cascadeLevels = 0;
+        while (cascadeLevels < LEVELS - 1 && (tick & ((1L << (SLOT_BITS * (cascadeLevels + 1))) - 1)) == 0) {
+            cascadeLevels++;
+        }
+
+        for (int level = cascadeLevels; level > 0; level--) {
+            this.cascade(this.wheel[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+        }
+
+        //  Every task in the current slot of the first level is due
+        TaskList dueTasks = this.wheel[0][(int) tick & SLOT_MASK];
+        Task task;
+
+        while ((task = dueTasks.poll()) != null) {
+            this.lanes[task.priority.ordinal()].add(task);
+        }
+
+        long startTime = System.nanoTime();
+        for (Priority priority : Priority.values()) {
+
+            TaskList lane = this.lanes[priority.ordinal()];
+            int runTasks = 0;
+
+            while (runTasks < priority.getMinimumShare() || System.nanoTime() - startTime < this.budgetNanos) {
+
+                if ((task = lane.poll()) == null) {
+                    break;
+                }
+
+                this.run(task, server);
+                runTasks++;
+
+            }
+
+            //  Tasks that became due on this tick were added to the end of the lane, so only those are walked to count
+            //  their deferral, which counts every task once, no matter how many ticks it rolls over
+            for (Task deferred = lane.tail; deferred != null && deferred.deadline == tick; deferred = deferred.previous) {
+                this.getMetrics(deferred.name).deferrals++;
+            }
+
+        }
+
+    }
+
+    private void cascade(TaskList slot) {
+
+        //  Detach the tasks first, since tasks of the highest level may be reinserted into the same slot
+        TaskList tasks = new TaskList();
+        Task task;
+
+        while ((task = slot.poll()) != null) {
+            tasks.add(task);
+        }
+
+        while ((task = tasks.poll()) != null) {
+            this.insert(task);
+        }
+
+    }
+
+    private void run(Task task, MinecraftServer server) {
+
+        if (task.persistent != null) {
+            this.forgetPersistent(task);
+        }
+
+        this.measure(task.name, () -> task.action.accept(server));
+
+        //  Reschedule repeating tasks with the same node, unless the task cancelled itself while running
+        if (task.interval >= 0 && !task.cancelled && (task.requeue == null || task.requeue.test((int) this.currentTick))) {
+            task.deadline = this.currentTick + task.interval + 1;
+            this.insert(task);
+        }
+
+    }
+
+    private void measure(String name, Runnable action) {
+
+        long startTime = System.nanoTime();
+        try {
+            action.run();
+        } catch (Exception e) {
+            Origins.LOGGER.error("Scheduled task \"{}\" threw an exception: {}", name, e.getMessage(), e);
+        }
+
+        long elapsedTime = System.nanoTime() - startTime;
+        Metrics taskMetrics = this.getMetrics(name);
+
+        taskMetrics.runs++;
+        taskMetrics.totalNanos += elapsedTime;
+        taskMetrics.maxNanos = Math.max(taskMetrics.maxNanos, elapsedTime);
+
+    }
+
+    private Metrics getMetrics(String name) {
+        return this.metrics.computeIfAbsent(name, k -> new Metrics());
+    }
+
+    public enum Priority {
+
+        HIGH(16),
+        NORMAL(4),
+        LOW(1);
+
+        private final int minimumShare;
+
+        Priority(int minimumShare) {
+            this.minimumShare = minimumShare;
+        }
+
+        /**
+         * @return how many due tasks of this priority are run per tick, even if the budget already ran out
+         */
+        public int getMinimumShare() {
+            return minimumShare;
+        }
+
+    }
+
+    /**
+     * A handle to a scheduled task, which can be used to cancel it.
+     */
+    public interface Handle {
+
+        /**
+         * @return whether the task was still scheduled (and is now cancelled)
+         */
+        boolean cancel();
+
+        /**
+         * @return whether the task is still waiting to be run (again)
+         */
+        boolean isScheduled();
+
+    }
+
+    public record TaskMetrics(long runs, long totalNanos, long maxNanos, long deferrals) {
+
+        public double averageNanos() {
+            return runs > 0 ? (double) totalNanos / runs : 0;
+        }
+
+    }
+
+    private static final class Metrics {
+
+        private long runs;
+        private long totalNanos;
+        private long maxNanos;
+        private long deferrals;
+
+        private TaskMetrics snapshot() {
+            return new TaskMetrics(this.runs, this.totalNanos, this.maxNanos, this.deferrals);
+        }
+
+    }
+
+    record PersistentTask<T>(PersistentTaskType<T> type, @Nullable String key, T data) {
+
+        private PersistentKey lookupKey() {
+            return new PersistentKey(type.id().toString(), key);
+        }
+
+    }
+
+    private record PersistentKey(String typeId, String key) {
+
+    }
+
+    private final class Task implements Handle {
+
+        private final String name;
+        private final Priority priority;
+        private final Consumer<MinecraftServer> action;
         private final IntPredicate requeue;
-        public final int next;
+        private final int interval; //  -1 for one time tasks
 
-        private Repeating(Consumer<MinecraftServer> task, IntPredicate requeue, int interval) {
-            this.task = task;
+        private long deadline;
+        private boolean cancelled;
+
+        @Nullable
+        private PersistentTask<?> persistent;
+
+        private TaskList list;
+        private Task previous;
+        private Task next;
+
+        private Task(String name, Priority priority, Consumer<MinecraftServer> action, IntPredicate requeue, int interval) {
+            this.name = name;
+            this.priority = priority;
+            this.action = action;
             this.requeue = requeue;
-            this.next = interval;
+            this.interval = interval;
         }
 
-        public boolean shouldQueue(int predicate) {
-            if(this.requeue == null)
-                return true;
-            return this.requeue.test(predicate);
-        }
+        @Override
+        public boolean cancel() {
+
+            this.cancelled = true;
+            if (this.persistent != null) {
+                Scheduler.this.forgetPersistent(this);
+            }
+
+            if (this.list == null) {
+                return false;
+            }
+
+            this.list.remove(this);
+            return true;
 
+        }
 
         @Override
-        public void accept(MinecraftServer server) {
-            this.task.accept(server);
+        public boolean isScheduled() {
+            return this.list != null;
         }
+
     }
+
+    /**
+     * An intrusive, doubly linked FIFO list of tasks.
+     */
+    private static final class TaskList {
+
+        private Task head;
+        private Task tail;
+        private int size;
+
+        private void add(Task task) {
+
+            task.list = this;
+            task.previous = this.tail;
+            task.next = null;
+
+            if (this.tail == null) {
+                this.head = task;
+            } else {
+                this.tail.next = task;
+            }
+
+            this.tail = task;
+            this.size++;
+
+        }
+
+        private Task poll() {
+
+            Task task = this.head;
+            if (task != null) {
+                this.remove(task);
+            }
+
+            return task;
+
+        }
+
+        private void remove(Task task) {
+
+            if (task.previous == null) {
+                this.head = task.next;
+            } else {
+                task.previous.next = task.next;
+            }
+
+            if (task.next == null) {
+                this.tail = task.previous;
+            } else {
+                task.next.previous = task.previous;
+            }
+
+            task.list = null;
+            task.previous = null;
+            task.next = null;
+
+            this.size--;
+
+        }
+
+        private void clear() {
+
+            Task task;
+            while ((task = this.poll()) != null) {
+                task.cancelled = true;
+            }
+
+        }
+
+    }
+
 }